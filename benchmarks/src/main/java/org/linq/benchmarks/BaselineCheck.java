@@ -0,0 +1,88 @@
+package org.linq.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compares a JMH json result against the committed baseline and fails if any benchmark got slower
+ * than the tolerance allows. Benchmarks missing from either side are reported and skipped.
+ * A missing or empty baseline fails the check, the baseline is recorded by committing a result of a reference run.
+ * <p>
+ * Usage: {@code BaselineCheck <baseline.json> <result.json> [tolerance percent, 10 by default]}
+ */
+public final class BaselineCheck {
+
+    private static final Pattern BENCHMARK = Pattern.compile(
+        "\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"mode\"\\s*:\\s*\"(\\w+)\".*?\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([-0-9.eE]+|\"NaN\")",
+        Pattern.DOTALL
+    );
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.json> <result.json> [tolerance percent]");
+            System.exit(2);
+        }
+        var baselinePath = Path.of(args[0]);
+        var resultPath = Path.of(args[1]);
+        var tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.1;
+
+        var result = scores(Files.readString(resultPath));
+        var baseline = Files.exists(baselinePath) ? scores(Files.readString(baselinePath)) : Map.<String, Score>of();
+        if (baseline.isEmpty()) {
+            System.err.println("No baseline in " + baselinePath + ", commit the result of a reference run as the baseline");
+            System.exit(2);
+        }
+
+        var regressions = 0;
+        for (var entry : result.entrySet()) {
+            var expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.printf("%-70s %12.3f  (no baseline)%n", entry.getKey(), entry.getValue().score());
+                continue;
+            }
+            var actual = entry.getValue();
+            // throughput modes are better when higher, time modes when lower
+            var change = actual.mode().equals("thrpt")
+                ? expected.score() / actual.score() - 1
+                : actual.score() / expected.score() - 1;
+            var regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %12.3f %12.3f %+8.1f%%%s%n",
+                entry.getKey(), expected.score(), actual.score(), change * 100, regressed ? "  REGRESSION" : "");
+        }
+        for (var name : baseline.keySet()) {
+            if (!result.containsKey(name)) {
+                System.out.printf("%-70s  (not run)%n", name);
+            }
+        }
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmarks regressed by more than " + Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> scores(String json) {
+        var scores = new LinkedHashMap<String, Score>();
+        var matcher = BENCHMARK.matcher(json);
+        while (matcher.find()) {
+            var score = matcher.group(3);
+            scores.put(matcher.group(1), new Score(
+                matcher.group(2),
+                score.startsWith("\"") ? Double.NaN : Double.parseDouble(score)
+            ));
+        }
+        return scores;
+    }
+
+    private record Score(String mode, double score) {
+    }
+}
@@ -0,0 +1,78 @@
+package org.linq.benchmarks;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.linq.core.Dummy;
+import org.linq.core.datasource.ConnectionPool;
+import org.linq.core.query.Database;
+import org.linq.core.query.DbStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole queries from stream building through translation, rendering, execution and mapping
+ * against the in-process stand-in database. Absolute numbers are not comparable to a PostgreSQL server,
+ * but changes in the library overhead show up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConnectionPool pool;
+
+    private Database database;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = StandInDatabase.create("end_to_end", rows);
+        database = new Database(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+        pool.close();
+    }
+
+    @Benchmark
+    public List<Dummy> filteredPage() {
+        var threshold = rows / 2;
+        return new DbStream<>(Dummy.class, database)
+            .filter(t -> t.num > threshold)
+            .filter(t -> t.surname().startsWith("d"))
+            .sortedBy(t -> t.num)
+            .limit(100)
+            .toList();
+    }
+
+    @Benchmark
+    public List<Dummy> fullScan() {
+        return new DbStream<>(Dummy.class, database).toList();
+    }
+
+    @Benchmark
+    public long count() {
+        return new DbStream<>(Dummy.class, database)
+            .filter(t -> !t.name().isBlank())
+            .count();
+    }
+}
@@ -0,0 +1,97 @@
+package org.linq.benchmarks;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.dbutils.BasicRowProcessor;
+import org.apache.commons.dbutils.GenerousBeanProcessor;
+import org.apache.commons.dbutils.handlers.BeanListHandler;
+import org.linq.core.Dummy;
+import org.linq.core.datasource.ConnectionPool;
+import org.linq.core.mapping.EntityMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping of an already fetched result set into entities, compared against reflective bean mapping of commons-dbutils.
+ * A scrollable result set is opened for every iteration and rewound at the start of every invocation, so no
+ * per-invocation setup distorts the scores and only mapping is measured, besides the rewind that is the same for both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MappingBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private ConnectionPool pool;
+
+    private Connection connection;
+
+    private Statement statement;
+
+    private ResultSet resultSet;
+
+    private final BeanListHandler<Dummy> beanListHandler =
+        new BeanListHandler<>(Dummy.class, new BasicRowProcessor(new GenerousBeanProcessor()));
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = StandInDatabase.create("mapping", rows);
+        connection = pool.getConnection();
+    }
+
+    @Setup(Level.Iteration)
+    public void open() throws SQLException {
+        statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        resultSet = statement.executeQuery("SELECT * FROM dummy");
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws SQLException {
+        resultSet.close();
+        statement.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        pool.close();
+    }
+
+    @Benchmark
+    public List<Dummy> entityMapper() throws SQLException {
+        resultSet.beforeFirst();
+        var mapper = EntityMapper.of(Dummy.class).bind(resultSet.getMetaData());
+        var result = new ArrayList<Dummy>();
+        while (resultSet.next()) {
+            result.add(mapper.map(resultSet));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Dummy> beanListHandler() throws SQLException {
+        resultSet.beforeFirst();
+        return beanListHandler.handle(resultSet);
+    }
+}
@@ -0,0 +1,80 @@
+package org.linq.benchmarks;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.linq.core.Dummy;
+import org.linq.core.Main.Dummy2;
+import org.linq.core.condition.Condition;
+import org.linq.core.datasource.ConnectionPool;
+import org.linq.core.query.Database;
+import org.linq.core.query.DbStream;
+import org.linq.core.query.Query;
+import org.linq.core.sql.SqlNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering of translated conditions and whole queries into sql, including evaluation of captured values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderingBenchmark {
+
+    private ConnectionPool pool;
+
+    private DbStream<Dummy> stream;
+
+    private Condition captured;
+
+    private Condition plain;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = StandInDatabase.create("rendering", 0);
+        var dummy2 = new Dummy2();
+        var suffix = "urname";
+        captured = Condition.of((Dummy t) -> t.name().substring(dummy2.getStartIdx(), Dummy2.endIdx())
+            .concat(Integer.valueOf(4).toString()).endsWith(suffix));
+        plain = Condition.of((Dummy t) -> t.num > 10 && t.surname().startsWith("d"));
+        stream = new DbStream<>(Dummy.class, new Database(pool))
+            .filter(t -> t.name().strip().endsWith(t.name().substring(1)) || t.surname().stripLeading().startsWith("d"))
+            .filter(t -> !t.name().isBlank())
+            .filter(t -> t.num > 10)
+            .sortedBy(t -> t.num)
+            .limit(100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public SqlNode conditionWithCapturedValues() {
+        return captured.toSql();
+    }
+
+    @Benchmark
+    public SqlNode conditionWithoutCapturedValues() {
+        return plain.toSql();
+    }
+
+    @Benchmark
+    public Query query() {
+        return stream.toQuery();
+    }
+}
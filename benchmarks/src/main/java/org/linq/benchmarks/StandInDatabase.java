@@ -0,0 +1,35 @@
+package org.linq.benchmarks;
+
+import java.sql.SQLException;
+import org.linq.core.datasource.ConnectionPool;
+import org.linq.core.datasource.DriverManagerDataSource;
+
+/**
+ * In-process H2 database in PostgreSQL compatibility mode holding a {@code dummy} table,
+ * so that end-to-end benchmarks don't depend on a running server.
+ */
+final class StandInDatabase {
+
+    private StandInDatabase() {
+    }
+
+    static ConnectionPool create(String name, int rows) throws SQLException {
+        var pool = new ConnectionPool(new DriverManagerDataSource(
+            "jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""
+        ));
+        try (var connection = pool.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS dummy");
+            statement.execute("CREATE TABLE dummy (name VARCHAR(64), surname VARCHAR(64), num BIGINT)");
+            try (var insert = connection.prepareStatement("INSERT INTO dummy (name, surname, num) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    insert.setString(1, "name" + i);
+                    insert.setString(2, (i % 2 == 0 ? "d" : "s") + "urname" + i);
+                    insert.setLong(3, i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        return pool;
+    }
+}
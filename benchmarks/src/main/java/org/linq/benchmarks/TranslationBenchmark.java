@@ -0,0 +1,70 @@
+package org.linq.benchmarks;
+
+import java.lang.reflect.code.op.CoreOp;
+import java.util.concurrent.TimeUnit;
+import org.linq.core.Dummy;
+import org.linq.core.Main.Dummy2;
+import org.linq.core.condition.Condition;
+import org.linq.core.function.QuotablePredicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Translation of filter lambdas into conditions, both from the code model on every call
+ * and through the shared translation cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TranslationBenchmark {
+
+    private final QuotablePredicate<Dummy> transforms = t -> t.name().substring(
+        new Dummy2().getStartIdx(),
+        Dummy2.endIdx()
+    ).concat(Integer.valueOf(4).toString()).toUpperCase().matches("[A-E]{1,10}\\d*");
+
+    private final QuotablePredicate<Dummy> composite =
+        t -> t.name().strip().endsWith(t.name().substring(1)) || t.surname().stripLeading().startsWith("d");
+
+    private final QuotablePredicate<Dummy> numeric = t -> !Long.toUnsignedString(t.num).contains("-");
+
+    @Benchmark
+    public Condition transformsUncached() {
+        return translate(transforms);
+    }
+
+    @Benchmark
+    public Condition compositeUncached() {
+        return translate(composite);
+    }
+
+    @Benchmark
+    public Condition numericUncached() {
+        return translate(numeric);
+    }
+
+    @Benchmark
+    public Condition transformsCached() {
+        return Condition.of(transforms);
+    }
+
+    @Benchmark
+    public Condition compositeCached() {
+        return Condition.of(composite);
+    }
+
+    private static Condition translate(QuotablePredicate<?> predicate) {
+        var quoted = predicate.quoted();
+        return Condition.of((CoreOp.LambdaOp) quoted.op(), quoted.capturedValues());
+    }
+}
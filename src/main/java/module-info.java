@@ -1,7 +1,18 @@
 module core {
     requires java.compiler;
-    requires org.apache.commons.dbutils;
     requires java.sql;
+    requires jdk.jfr;
+    requires org.postgresql.jdbc;
     exports org.linq.core;
     exports org.linq.core.function;
+    exports org.linq.core.columnar;
+    exports org.linq.core.condition;
+    exports org.linq.core.copy;
+    exports org.linq.core.datasource;
+    exports org.linq.core.entity;
+    exports org.linq.core.mapping;
+    exports org.linq.core.order;
+    exports org.linq.core.query;
+    exports org.linq.core.sql;
+    exports org.linq.core.write;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package org.linq.core.columnar;
+
+/**
+ * Values of one selected column for the rows of a {@link ColumnBatch}.
+ */
+public sealed interface Column permits LongColumn, IntColumn, DoubleColumn, StringColumn {
+
+    /**
+     * Returns the number of rows.
+     */
+    int size();
+
+    boolean isNull(int row);
+
+    /**
+     * Returns whether any row holds NULL, loops over columns without nulls can skip {@link #isNull(int)}.
+     */
+    boolean hasNulls();
+}
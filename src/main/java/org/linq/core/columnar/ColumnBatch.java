@@ -0,0 +1,54 @@
+package org.linq.core.columnar;
+
+import java.util.List;
+
+/**
+ * Chunk of rows stored column by column, in order of the selected columns.
+ */
+public final class ColumnBatch {
+
+    private final List<Column> columns;
+
+    private final int rows;
+
+    ColumnBatch(List<Column> columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columnCount() {
+        return columns.size();
+    }
+
+    public Column column(int index) {
+        return columns.get(index);
+    }
+
+    public LongColumn longs(int index) {
+        return column(index, LongColumn.class);
+    }
+
+    public IntColumn ints(int index) {
+        return column(index, IntColumn.class);
+    }
+
+    public DoubleColumn doubles(int index) {
+        return column(index, DoubleColumn.class);
+    }
+
+    public StringColumn strings(int index) {
+        return column(index, StringColumn.class);
+    }
+
+    private <C extends Column> C column(int index, Class<C> type) {
+        var column = columns.get(index);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException("Column " + index + " is a " + column.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+        }
+        return type.cast(column);
+    }
+}
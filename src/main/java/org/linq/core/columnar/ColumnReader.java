@@ -0,0 +1,117 @@
+package org.linq.core.columnar;
+
+import java.lang.foreign.Arena;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads rows of a result set into column batches of a fixed number of rows.
+ * Values are read with primitive getters straight into the columns, so numeric columns are never boxed.
+ * Columns are allocated once per reader and refilled by every batch, so a batch is only valid until the next one
+ * is read, and values to keep must be copied, e.g. with {@link LongColumn#toArray()}.
+ * Bigint columns are read as longs, smaller integers and booleans as ints, floating point and numeric columns
+ * as doubles, and all other columns as dictionary encoded strings.
+ */
+public final class ColumnReader {
+
+    private final Kind[] kinds;
+
+    private final int chunkSize;
+
+    private final List<Column> columns;
+
+    private ColumnReader(Kind[] kinds, int chunkSize, Arena arena) {
+        this.kinds = kinds;
+        this.chunkSize = chunkSize;
+        var columns = new ArrayList<Column>(kinds.length);
+        for (var kind : kinds) {
+            columns.add(switch (kind) {
+                case LONG -> new LongColumn(chunkSize, arena);
+                case INT, BOOLEAN -> new IntColumn(chunkSize, arena);
+                case DOUBLE -> new DoubleColumn(chunkSize, arena);
+                case STRING -> new StringColumn(chunkSize);
+            });
+        }
+        this.columns = List.copyOf(columns);
+    }
+
+    /**
+     * Creates a reader for result sets of the given shape.
+     * @param chunkSize maximal number of rows of a batch
+     * @param arena arena numeric columns are allocated in, or null to allocate them on the heap
+     */
+    public static ColumnReader of(ResultSetMetaData metaData, int chunkSize, Arena arena) throws SQLException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        var kinds = new Kind[metaData.getColumnCount()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = switch (metaData.getColumnType(i + 1)) {
+                case Types.BIGINT -> Kind.LONG;
+                case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> Kind.INT;
+                case Types.BOOLEAN, Types.BIT -> Kind.BOOLEAN;
+                case Types.DOUBLE, Types.FLOAT, Types.REAL, Types.NUMERIC, Types.DECIMAL -> Kind.DOUBLE;
+                default -> Kind.STRING;
+            };
+        }
+        return new ColumnReader(kinds, chunkSize, arena);
+    }
+
+    /**
+     * Reads the next batch into the columns of this reader, moving the cursor past its rows.
+     * Columns of the previous batch are overwritten.
+     * @return the batch, or null if the cursor is exhausted
+     */
+    public ColumnBatch read(ResultSet resultSet) throws SQLException {
+        if (!resultSet.next()) {
+            return null;
+        }
+        for (var column : columns) {
+            switch (column) {
+                case LongColumn longs -> longs.clear();
+                case IntColumn ints -> ints.clear();
+                case DoubleColumn doubles -> doubles.clear();
+                case StringColumn strings -> strings.clear();
+            }
+        }
+        var rows = 0;
+        do {
+            for (int i = 0; i < kinds.length; i++) {
+                var index = i + 1;
+                switch (kinds[i]) {
+                    case LONG -> {
+                        var value = resultSet.getLong(index);
+                        ((LongColumn) columns.get(i)).add(value, resultSet.wasNull());
+                    }
+                    case INT -> {
+                        var value = resultSet.getInt(index);
+                        ((IntColumn) columns.get(i)).add(value, resultSet.wasNull());
+                    }
+                    case BOOLEAN -> {
+                        var value = resultSet.getBoolean(index) ? 1 : 0;
+                        ((IntColumn) columns.get(i)).add(value, resultSet.wasNull());
+                    }
+                    case DOUBLE -> {
+                        var value = resultSet.getDouble(index);
+                        ((DoubleColumn) columns.get(i)).add(value, resultSet.wasNull());
+                    }
+                    case STRING -> ((StringColumn) columns.get(i)).add(resultSet.getString(index));
+                }
+            }
+            rows++;
+        } while (rows < chunkSize && resultSet.next());
+        return new ColumnBatch(columns, rows);
+    }
+
+    private enum Kind {
+        LONG,
+        INT,
+        BOOLEAN,
+        DOUBLE,
+        STRING
+    }
+}
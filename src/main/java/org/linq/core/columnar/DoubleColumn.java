@@ -0,0 +1,72 @@
+package org.linq.core.columnar;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Column of double values, stored in a heap array or in off-heap memory of an arena.
+ * NULL values are read as 0.
+ */
+public final class DoubleColumn implements Column {
+
+    private final MemorySegment values;
+
+    private final NullBitmap nulls = new NullBitmap();
+
+    private final int capacity;
+
+    private int size;
+
+    DoubleColumn(int capacity, Arena arena) {
+        this.capacity = capacity;
+        this.values = arena != null
+            ? arena.allocate(ValueLayout.JAVA_DOUBLE, capacity)
+            : MemorySegment.ofArray(new double[capacity]);
+    }
+
+    void clear() {
+        nulls.clear();
+        size = 0;
+    }
+
+    void add(double value, boolean isNull) {
+        if (isNull) {
+            nulls.set(size, capacity);
+        }
+        values.setAtIndex(ValueLayout.JAVA_DOUBLE, size++, value);
+    }
+
+    public double get(int row) {
+        return values.getAtIndex(ValueLayout.JAVA_DOUBLE, row);
+    }
+
+    /**
+     * Returns the values of all rows, copied into a new array.
+     */
+    public double[] toArray() {
+        return segment().toArray(ValueLayout.JAVA_DOUBLE);
+    }
+
+    /**
+     * Returns the memory holding values of all rows, without copying.
+     */
+    public MemorySegment segment() {
+        return values.asSlice(0, size * ValueLayout.JAVA_DOUBLE.byteSize());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    @Override
+    public boolean hasNulls() {
+        return !nulls.isEmpty();
+    }
+}
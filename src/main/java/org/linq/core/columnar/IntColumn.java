@@ -0,0 +1,72 @@
+package org.linq.core.columnar;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Column of int values, stored in a heap array or in off-heap memory of an arena.
+ * NULL values are read as 0, booleans as 0 and 1.
+ */
+public final class IntColumn implements Column {
+
+    private final MemorySegment values;
+
+    private final NullBitmap nulls = new NullBitmap();
+
+    private final int capacity;
+
+    private int size;
+
+    IntColumn(int capacity, Arena arena) {
+        this.capacity = capacity;
+        this.values = arena != null
+            ? arena.allocate(ValueLayout.JAVA_INT, capacity)
+            : MemorySegment.ofArray(new int[capacity]);
+    }
+
+    void clear() {
+        nulls.clear();
+        size = 0;
+    }
+
+    void add(int value, boolean isNull) {
+        if (isNull) {
+            nulls.set(size, capacity);
+        }
+        values.setAtIndex(ValueLayout.JAVA_INT, size++, value);
+    }
+
+    public int get(int row) {
+        return values.getAtIndex(ValueLayout.JAVA_INT, row);
+    }
+
+    /**
+     * Returns the values of all rows, copied into a new array.
+     */
+    public int[] toArray() {
+        return segment().toArray(ValueLayout.JAVA_INT);
+    }
+
+    /**
+     * Returns the memory holding values of all rows, without copying.
+     */
+    public MemorySegment segment() {
+        return values.asSlice(0, size * ValueLayout.JAVA_INT.byteSize());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    @Override
+    public boolean hasNulls() {
+        return !nulls.isEmpty();
+    }
+}
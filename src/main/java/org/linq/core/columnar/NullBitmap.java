@@ -0,0 +1,36 @@
+package org.linq.core.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Bit per row marking NULL values, allocated once the first NULL is read and kept when the bitmap is cleared.
+ */
+final class NullBitmap {
+
+    private long[] words;
+
+    private boolean empty = true;
+
+    void set(int row, int capacity) {
+        if (words == null) {
+            words = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+        }
+        words[row >>> 6] |= 1L << row;
+        empty = false;
+    }
+
+    boolean get(int row) {
+        return !empty && (words[row >>> 6] & 1L << row) != 0;
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    void clear() {
+        if (!empty) {
+            Arrays.fill(words, 0);
+            empty = true;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.linq.core.columnar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoded column of strings. Every distinct value is kept once and rows hold codes into the dictionary,
+ * so columns with few distinct values, e.g. names or statuses, take little memory and are compared by code.
+ */
+public final class StringColumn implements Column {
+
+    private final int[] codes;
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private final Map<String, Integer> encoding = new HashMap<>();
+
+    private final NullBitmap nulls = new NullBitmap();
+
+    private int size;
+
+    StringColumn(int capacity) {
+        this.codes = new int[capacity];
+    }
+
+    void clear() {
+        dictionary.clear();
+        encoding.clear();
+        nulls.clear();
+        size = 0;
+    }
+
+    void add(String value) {
+        if (value == null) {
+            nulls.set(size, codes.length);
+            codes[size++] = -1;
+            return;
+        }
+        var code = encoding.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            encoding.put(value, code);
+        }
+        codes[size++] = code;
+    }
+
+    public String get(int row) {
+        var code = codes[row];
+        return code < 0 ? null : dictionary.get(code);
+    }
+
+    /**
+     * Returns the code of the row value in the {@link #dictionary()}, -1 for NULL.
+     */
+    public int code(int row) {
+        return codes[row];
+    }
+
+    /**
+     * Returns distinct values of the column in order of their first occurrence.
+     */
+    public List<String> dictionary() {
+        return List.copyOf(dictionary);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    @Override
+    public boolean hasNulls() {
+        return !nulls.isEmpty();
+    }
+}
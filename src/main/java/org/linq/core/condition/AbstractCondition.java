@@ -7,6 +7,7 @@ import java.lang.reflect.code.op.ExtendedOp;
 import java.lang.reflect.code.type.PrimitiveType;
 import java.util.Collections;
 import java.util.Map;
+import org.linq.core.util.Dependencies;
 
 public abstract class AbstractCondition implements Condition {
 
@@ -20,7 +21,17 @@ public abstract class AbstractCondition implements Condition {
             throw new IllegalArgumentException("Condition must return boolean");
         }
         AbstractCondition.capturedValues.set(Collections.unmodifiableMap(capturedValues));
-        return AbstractCondition.of(((Op.Result) lambdaOp.body().blocks().getFirst().ops().getLast().operands().getFirst()).op());
+        var result = ((Op.Result) lambdaOp.body().blocks().getFirst().ops().getLast().operands().getFirst()).op();
+        return Dependencies.with(lambdaOp, capturedValues, () -> AbstractCondition.of(result));
+    }
+
+    /**
+     * Translates a boolean expression nested in a lambda, e.g. a comparison projected into the select list.
+     * The lambda must be analyzed by {@link Dependencies#with} already.
+     */
+    public static AbstractCondition ofExpression(Op op, Map<Value, Object> capturedValues) {
+        AbstractCondition.capturedValues.set(Collections.unmodifiableMap(capturedValues));
+        return AbstractCondition.of(op);
     }
 
     protected static AbstractCondition of(Op op) {
@@ -0,0 +1,17 @@
+package org.linq.core.condition;
+
+import java.lang.reflect.code.Value;
+import java.util.Map;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Captures;
+
+/**
+ * Translated condition together with the captured values of a particular lambda invocation.
+ */
+record BoundCondition(Condition condition, Map<Value, Object> capturedValues) implements Condition {
+
+    @Override
+    public SqlNode toSql() {
+        return Captures.with(capturedValues, condition::toSql);
+    }
+}
@@ -3,6 +3,7 @@ package org.linq.core.condition;
 import java.lang.reflect.code.Op;
 import java.lang.reflect.code.op.CoreOp;
 import org.linq.core.operand.Operand;
+import org.linq.core.sql.SqlNode;
 
 abstract class Comparison extends AbstractCondition {
 
@@ -17,8 +18,8 @@ abstract class Comparison extends AbstractCondition {
     }
 
     @Override
-    public String toSql() {
-        return "( " + left.getAsString() + " " + operator + " " + right.getAsString() + " )";
+    public SqlNode toSql() {
+        return SqlNode.parenthesized(SqlNode.binary(left.toSql(), operator, right.toSql()));
     }
 
     public static Comparison newComparison(Op op) {
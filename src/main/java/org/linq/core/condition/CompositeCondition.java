@@ -1,6 +1,7 @@
 package org.linq.core.condition;
 
 import java.lang.reflect.code.op.ExtendedOp;
+import org.linq.core.sql.SqlNode;
 
 abstract class CompositeCondition extends AbstractCondition {
 
@@ -40,8 +41,8 @@ abstract class CompositeCondition extends AbstractCondition {
         }
 
         @Override
-        public String toSql() {
-            return left.toSql() + " AND " + right.toSql();
+        public SqlNode toSql() {
+            return SqlNode.binary(left.toSql(), "AND", right.toSql());
         }
     }
 
@@ -52,8 +53,8 @@ abstract class CompositeCondition extends AbstractCondition {
         }
 
         @Override
-        public String toSql() {
-            return "(" + left.toSql() + " OR " + right.toSql() + ")";
+        public SqlNode toSql() {
+            return SqlNode.parenthesized(SqlNode.binary(left.toSql(), "OR", right.toSql()));
         }
     }
 }
@@ -3,11 +3,20 @@ package org.linq.core.condition;
 import java.lang.reflect.code.Value;
 import java.lang.reflect.code.op.CoreOp;
 import java.util.Map;
+import org.linq.core.function.QuotablePredicate;
 import org.linq.core.query.QueryPart;
 
 public interface Condition extends QueryPart {
 
     static Condition of(CoreOp.LambdaOp lambdaOp, Map<Value, Object> capturedValues) {
-        return AbstractCondition.of(lambdaOp, capturedValues);
+        return new BoundCondition(AbstractCondition.of(lambdaOp, capturedValues), capturedValues);
+    }
+
+    static Condition of(QuotablePredicate<?> predicate) {
+        return TranslationCache.shared().condition(predicate.getClass(), predicate.quoted());
+    }
+
+    static Condition not(Condition condition) {
+        return Negation.of(condition);
     }
 }
@@ -2,6 +2,7 @@ package org.linq.core.condition;
 
 import java.lang.reflect.code.Op;
 import java.lang.reflect.code.op.CoreOp;
+import org.linq.core.sql.SqlNode;
 
 class Negation extends AbstractCondition {
 
@@ -15,8 +16,12 @@ class Negation extends AbstractCondition {
         return new Negation(AbstractCondition.of(((Op.Result) op.operands().getFirst()).op()));
     }
 
+    static Negation of(Condition condition) {
+        return new Negation(condition);
+    }
+
     @Override
-    public String toSql() {
-        return "NOT ( " + condition.toSql() + " )";
+    public SqlNode toSql() {
+        return SqlNode.not(condition.toSql());
     }
 }
@@ -3,6 +3,7 @@ package org.linq.core.condition;
 import java.lang.reflect.code.Block;
 import java.lang.reflect.code.Op;
 import org.linq.core.operand.Operand;
+import org.linq.core.sql.SqlNode;
 
 class PlainCondition extends AbstractCondition {
 
@@ -22,7 +23,7 @@ class PlainCondition extends AbstractCondition {
     }
 
     @Override
-    public String toSql() {
-        return operand.getAsString();
+    public SqlNode toSql() {
+        return operand.toSql();
     }
 }
@@ -0,0 +1,345 @@
+package org.linq.core.condition;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.linq.core.sql.SqlNode;
+
+/**
+ * Simplifies rendered conditions of a query before they are written out as its WHERE clause.
+ * Comparisons of bound values are folded, always true terms are dropped, negations are pushed down to
+ * comparisons, nested AND and OR chains are flattened and numeric bounds of a column are merged into a single range.
+ * Conditions are only rewritten into equivalents under sql three-valued logic, e.g. comparisons with NULL are kept.
+ */
+public final class PredicateOptimizer {
+
+    private static final Set<String> COMPARISONS = Set.of("=", "<>", "<", "<=", ">", ">=");
+
+    private PredicateOptimizer() {
+    }
+
+    /**
+     * Returns the conjunction of the conditions, simplified.
+     * @param conditions rendered conditions, all of which rows must match
+     * @return {@link SqlNode#TRUE} if every row matches, {@link SqlNode#FALSE} if no row does,
+     * the simplified condition otherwise
+     */
+    public static SqlNode optimize(List<SqlNode> conditions) {
+        var terms = new ArrayList<Predicate>(conditions.size());
+        for (var condition : conditions) {
+            terms.add(parse(condition, false));
+        }
+        return render(and(terms), false);
+    }
+
+    /**
+     * Parses the condition, negating it if requested, so negations end up at comparisons and opaque conditions.
+     */
+    private static Predicate parse(SqlNode node, boolean negated) {
+        return switch (node) {
+            case SqlNode.Parenthesized(var expression) -> {
+                var parsed = parse(expression, negated);
+                yield parsed instanceof Opaque ? new Opaque(node, negated) : parsed;
+            }
+            case SqlNode.Not(var condition) -> parse(condition, !negated);
+            case SqlNode.Binary(var left, var operator, var right) when operator.equals("AND") || operator.equals("OR") ->
+                junction(operator.equals("AND") != negated, List.of(parse(left, negated), parse(right, negated)));
+            case SqlNode.Sequence(var nodes, var separator) when separator.equals(" AND ") || separator.equals(" OR ") -> {
+                var terms = new ArrayList<Predicate>(nodes.size());
+                for (var term : nodes) {
+                    terms.add(parse(term, negated));
+                }
+                yield junction(separator.equals(" AND ") != negated, terms);
+            }
+            case SqlNode.Binary(var left, var operator, var right) when COMPARISONS.contains(operator) ->
+                comparison(left, negated ? negate(operator) : operator, right);
+            case SqlNode.Parameter(Boolean value) -> new Constant(value != negated);
+            case SqlNode.Text(var sql) when node.equals(SqlNode.TRUE) || node.equals(SqlNode.FALSE) ->
+                new Constant(sql.equals("TRUE") != negated);
+            default -> new Opaque(node, negated);
+        };
+    }
+
+    private static Predicate junction(boolean conjunction, List<Predicate> terms) {
+        return conjunction ? and(terms) : or(terms);
+    }
+
+    private static Predicate and(List<Predicate> terms) {
+        var flattened = new LinkedHashSet<Predicate>();
+        for (var term : terms) {
+            switch (term) {
+                case Constant(var value) when value -> {
+                }
+                case Constant constant -> {
+                    return constant;
+                }
+                case And(var nested) -> flattened.addAll(nested);
+                default -> flattened.add(term);
+            }
+        }
+        var fused = fuseRanges(flattened);
+        if (fused == null) {
+            return new Constant(false);
+        }
+        return switch (fused.size()) {
+            case 0 -> new Constant(true);
+            case 1 -> fused.getFirst();
+            default -> new And(List.copyOf(fused));
+        };
+    }
+
+    private static Predicate or(List<Predicate> terms) {
+        var flattened = new LinkedHashSet<Predicate>();
+        for (var term : terms) {
+            switch (term) {
+                case Constant(var value) when !value -> {
+                }
+                case Constant constant -> {
+                    return constant;
+                }
+                case Or(var nested) -> flattened.addAll(nested);
+                default -> flattened.add(term);
+            }
+        }
+        return switch (flattened.size()) {
+            case 0 -> new Constant(false);
+            case 1 -> flattened.getFirst();
+            default -> new Or(List.copyOf(flattened));
+        };
+    }
+
+    /**
+     * Folds the comparison if both sides are bound values and turns it so that a column is on the left.
+     */
+    private static Predicate comparison(SqlNode left, String operator, SqlNode right) {
+        if (left instanceof SqlNode.Parameter(var leftValue) && right instanceof SqlNode.Parameter(var rightValue)) {
+            var order = compare(leftValue, rightValue);
+            if (order != null) {
+                return new Constant(holds(operator, order));
+            }
+        }
+        if (right instanceof SqlNode.Column && !(left instanceof SqlNode.Column)) {
+            return new Comparison(right, flip(operator), left);
+        }
+        return new Comparison(left, operator, right);
+    }
+
+    /**
+     * Keeps the tightest lower and upper bound of every column compared with numeric bound values,
+     * merging inclusive bounds into BETWEEN.
+     * @return fused terms, or null if bounds of a column contradict each other
+     */
+    private static List<Predicate> fuseRanges(Set<Predicate> terms) {
+        var ranges = new LinkedHashMap<SqlNode, Range>();
+        var fused = new ArrayList<Predicate>(terms.size());
+        for (var term : terms) {
+            if (term instanceof Comparison(var column, var operator, var bound)
+                && column instanceof SqlNode.Column
+                && bound instanceof SqlNode.Parameter(var value)
+                && value instanceof Number
+                && !operator.equals("=")
+                && !operator.equals("<>")) {
+                var range = ranges.get(column);
+                if (range == null) {
+                    range = new Range(column);
+                    ranges.put(column, range);
+                    fused.add(range);
+                }
+                if (!range.add(operator, bound, value)) {
+                    fused.add(term);
+                }
+            } else {
+                fused.add(term);
+            }
+        }
+        var result = new ArrayList<Predicate>(fused.size());
+        for (var term : fused) {
+            if (term instanceof Range range) {
+                if (range.isEmpty()) {
+                    return null;
+                }
+                result.addAll(range.terms());
+            } else {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    private static SqlNode render(Predicate predicate, boolean nested) {
+        return switch (predicate) {
+            case Constant(var value) -> value ? SqlNode.TRUE : SqlNode.FALSE;
+            case Comparison(var left, var operator, var right) -> SqlNode.parenthesized(SqlNode.binary(left, operator, right));
+            case Between(var column, var low, var high) ->
+                SqlNode.parenthesized(SqlNode.of(column, " BETWEEN ", low, " AND ", high));
+            case Opaque(var node, var negated) -> negated ? SqlNode.not(node) : node;
+            case And(var terms) -> {
+                var rendered = SqlNode.join(" AND ", terms.stream().map(term -> render(term, true)).toList());
+                yield nested ? SqlNode.parenthesized(rendered) : rendered;
+            }
+            case Or(var terms) -> SqlNode.parenthesized(
+                SqlNode.join(" OR ", terms.stream().map(term -> render(term, true)).toList())
+            );
+            case Range _ -> throw new IllegalStateException("Ranges are fused before rendering");
+        };
+    }
+
+    /**
+     * Compares numeric bound values. Other values, e.g. strings ordered by the collation of the database,
+     * are never compared on the client, so comparisons of them are kept as written.
+     * @return the sign of the comparison, or null if the values can't be compared on the client
+     */
+    private static Integer compare(Object left, Object right) {
+        if (left == null || right == null) {
+            return null;
+        }
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+            var leftDecimal = decimal(leftNumber);
+            var rightDecimal = decimal(rightNumber);
+            return leftDecimal != null && rightDecimal != null ? Integer.signum(leftDecimal.compareTo(rightDecimal)) : null;
+        }
+        return null;
+    }
+
+    private static BigDecimal decimal(Number number) {
+        return switch (number) {
+            case Integer _, Long _, Short _, Byte _ -> BigDecimal.valueOf(number.longValue());
+            case Double _, Float _ -> Double.isFinite(number.doubleValue()) ? new BigDecimal(number.doubleValue()) : null;
+            case BigDecimal decimal -> decimal;
+            default -> null;
+        };
+    }
+
+    private static boolean holds(String operator, int order) {
+        return switch (operator) {
+            case "=" -> order == 0;
+            case "<>" -> order != 0;
+            case "<" -> order < 0;
+            case "<=" -> order <= 0;
+            case ">" -> order > 0;
+            case ">=" -> order >= 0;
+            default -> throw new IllegalArgumentException("Not a comparison: " + operator);
+        };
+    }
+
+    private static String negate(String operator) {
+        return switch (operator) {
+            case "=" -> "<>";
+            case "<>" -> "=";
+            case "<" -> ">=";
+            case "<=" -> ">";
+            case ">" -> "<=";
+            case ">=" -> "<";
+            default -> throw new IllegalArgumentException("Not a comparison: " + operator);
+        };
+    }
+
+    private static String flip(String operator) {
+        return switch (operator) {
+            case "<" -> ">";
+            case "<=" -> ">=";
+            case ">" -> "<";
+            case ">=" -> "<=";
+            default -> operator;
+        };
+    }
+
+    private sealed interface Predicate {
+    }
+
+    private record Constant(boolean value) implements Predicate {
+    }
+
+    private record Comparison(SqlNode left, String operator, SqlNode right) implements Predicate {
+    }
+
+    private record Between(SqlNode column, SqlNode low, SqlNode high) implements Predicate {
+    }
+
+    /**
+     * Condition the optimizer doesn't look into, e.g. a boolean column or a function call.
+     */
+    private record Opaque(SqlNode node, boolean negated) implements Predicate {
+    }
+
+    private record And(List<Predicate> terms) implements Predicate {
+    }
+
+    private record Or(List<Predicate> terms) implements Predicate {
+    }
+
+    /**
+     * Bounds of a column collected while fusing a conjunction.
+     */
+    private static final class Range implements Predicate {
+
+        private final SqlNode column;
+
+        private Bound lower;
+
+        private Bound upper;
+
+        private Range(SqlNode column) {
+            this.column = column;
+        }
+
+        /**
+         * Narrows the range by the bound.
+         * @return false if the bound can't be compared with bounds added before and has to be kept as is
+         */
+        private boolean add(String operator, SqlNode node, Object value) {
+            var isLower = operator.startsWith(">");
+            var bound = new Bound(node, value, operator.length() == 2);
+            var current = isLower ? lower : upper;
+            if (current == null) {
+                if (isLower) {
+                    lower = bound;
+                } else {
+                    upper = bound;
+                }
+                return true;
+            }
+            var order = compare(value, current.value());
+            if (order == null) {
+                return false;
+            }
+            var tighter = isLower
+                ? order > 0 || order == 0 && !bound.inclusive()
+                : order < 0 || order == 0 && !bound.inclusive();
+            if (tighter && isLower) {
+                lower = bound;
+            } else if (tighter) {
+                upper = bound;
+            }
+            return true;
+        }
+
+        private boolean isEmpty() {
+            if (lower == null || upper == null) {
+                return false;
+            }
+            var order = compare(lower.value(), upper.value());
+            return order != null && (order > 0 || order == 0 && !(lower.inclusive() && upper.inclusive()));
+        }
+
+        private List<Predicate> terms() {
+            if (lower != null && upper != null && lower.inclusive() && upper.inclusive()) {
+                return List.of(new Between(column, lower.node(), upper.node()));
+            }
+            var terms = new ArrayList<Predicate>(2);
+            if (lower != null) {
+                terms.add(new Comparison(column, lower.inclusive() ? ">=" : ">", lower.node()));
+            }
+            if (upper != null) {
+                terms.add(new Comparison(column, upper.inclusive() ? "<=" : "<", upper.node()));
+            }
+            return terms;
+        }
+
+        private record Bound(SqlNode node, Object value, boolean inclusive) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.linq.core.condition;
+
+import java.lang.reflect.code.Quoted;
+import java.lang.reflect.code.Value;
+import java.lang.reflect.code.op.CoreOp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of translated conditions keyed by the lambda class, i.e. by the call site of a quoted lambda.
+ * Each entry holds the translated condition together with the capture slots of the code model it was
+ * translated from. Subsequent invocations of the same call site only bind their captured values to those slots.
+ */
+public final class TranslationCache {
+
+    private static final TranslationCache shared = new TranslationCache();
+
+    private final Map<Class<?>, CachedCondition> conditions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public static TranslationCache shared() {
+        return shared;
+    }
+
+    /**
+     * Returns the condition for the quoted lambda, translating it only on the first invocation of its call site.
+     * @param lambdaClass class of the lambda instance, identifies the call site
+     * @param quoted quoted representation of the lambda
+     * @return condition bound to the captured values of this invocation
+     */
+    public Condition condition(Class<?> lambdaClass, Quoted quoted) {
+        var cached = conditions.get(lambdaClass);
+        if (cached != null) {
+            hits.increment();
+            return cached.bind(quoted.capturedValues());
+        }
+        misses.increment();
+        var capturedValues = quoted.capturedValues();
+        cached = new CachedCondition(
+            AbstractCondition.of((CoreOp.LambdaOp) quoted.op(), capturedValues),
+            List.copyOf(capturedValues.keySet())
+        );
+        conditions.putIfAbsent(lambdaClass, cached);
+        return new BoundCondition(cached.condition(), capturedValues);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return conditions.size();
+    }
+
+    public void clear() {
+        conditions.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    private record CachedCondition(Condition condition, List<Value> captureSlots) {
+
+        /**
+         * Captured values of a different invocation are keyed by values of its own code model,
+         * so they are matched to the slots of the cached model by position.
+         */
+        private Condition bind(Map<Value, Object> capturedValues) {
+            var values = new ArrayList<>(capturedValues.values());
+            var bound = LinkedHashMap.<Value, Object>newLinkedHashMap(captureSlots.size());
+            for (int i = 0; i < captureSlots.size(); i++) {
+                bound.put(captureSlots.get(i), values.get(i));
+            }
+            return new BoundCondition(condition, bound);
+        }
+    }
+}
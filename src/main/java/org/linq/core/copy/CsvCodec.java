@@ -0,0 +1,185 @@
+package org.linq.core.copy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.linq.core.entity.EntityMetadata;
+import org.linq.core.util.Lookups;
+
+/**
+ * Encodes entities into rows of the PostgreSQL CSV copy format and decodes them back.
+ * Unquoted empty fields stand for nulls, strings are always quoted. Nulls of primitive properties are decoded
+ * as the default value of the type, the same way they are read by {@link org.linq.core.mapping.EntityMapper}.
+ * Identifiers generated by the database are decoded, but not encoded, the same way they are left out of inserts.
+ * @param <T> the entity type
+ */
+final class CsvCodec<T> {
+
+    private static final ClassValue<CsvCodec<?>> codecs = new ClassValue<>() {
+        @Override
+        protected CsvCodec<?> computeValue(Class<?> type) {
+            return new CsvCodec<>(EntityMetadata.of(type));
+        }
+    };
+
+    private final String table;
+
+    private final MethodHandle constructor;
+
+    private final List<Column> columns;
+
+    private final List<Column> loadedColumns;
+
+    private CsvCodec(EntityMetadata<T> entity) {
+        var type = entity.type();
+        this.table = entity.table();
+        try {
+            this.constructor = Lookups.lookupFor(type).findConstructor(type, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Entity " + type.getName() + " must declare an accessible no-arg constructor", e);
+        }
+        this.columns = entity.properties().stream()
+            .filter(property -> property.getter() != null && property.setter() != null)
+            .map(CsvCodec::column)
+            .toList();
+        this.loadedColumns = entity.properties().stream()
+            .filter(property -> property.getter() != null && property.setter() != null && !property.generated())
+            .map(CsvCodec::column)
+            .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> CsvCodec<T> of(Class<T> type) {
+        return (CsvCodec<T>) codecs.get(type);
+    }
+
+    String table() {
+        return table;
+    }
+
+    /**
+     * Returns the columns decoded from exported rows.
+     */
+    String columnList() {
+        return columns.stream().map(Column::name).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Returns the columns encoded into loaded rows, i.e. all but a generated identifier.
+     */
+    String loadedColumnList() {
+        return loadedColumns.stream().map(Column::name).collect(Collectors.joining(", "));
+    }
+
+    void encode(T entity, StringBuilder out) {
+        for (int i = 0; i < loadedColumns.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            var value = loadedColumns.get(i).get(entity);
+            switch (value) {
+                case null -> {
+                }
+                case Number number -> out.append(number);
+                case Boolean bool -> out.append(bool);
+                default -> out.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+            }
+        }
+        out.append('\n');
+    }
+
+    @SuppressWarnings("unchecked")
+    T decode(CharSequence row) {
+        try {
+            var entity = (Object) constructor.invokeExact();
+            var position = 0;
+            for (var column : columns) {
+                var field = new StringBuilder();
+                var quoted = false;
+                if (position < row.length() && row.charAt(position) == '"') {
+                    quoted = true;
+                    position++;
+                    while (position < row.length()) {
+                        var c = row.charAt(position++);
+                        if (c == '"') {
+                            if (position < row.length() && row.charAt(position) == '"') {
+                                field.append('"');
+                                position++;
+                            } else {
+                                break;
+                            }
+                        } else {
+                            field.append(c);
+                        }
+                    }
+                }
+                while (position < row.length() && row.charAt(position) != ',' && row.charAt(position) != '\n') {
+                    field.append(row.charAt(position++));
+                }
+                position++;
+                column.set(entity, !quoted && field.isEmpty() ? column.nullValue() : column.parser().apply(field.toString()));
+            }
+            return (T) entity;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Column column(EntityMetadata.Property property) {
+        return new Column(
+            property.column(),
+            property.getter().asType(MethodType.methodType(Object.class, Object.class)),
+            property.setter().asType(MethodType.methodType(void.class, Object.class, Object.class)),
+            parser(property.type()),
+            Array.get(Array.newInstance(property.type(), 1), 0)
+        );
+    }
+
+    private static Function<String, Object> parser(Class<?> type) {
+        if (type == long.class || type == Long.class) {
+            return Long::valueOf;
+        } else if (type == int.class || type == Integer.class) {
+            return Integer::valueOf;
+        } else if (type == short.class || type == Short.class) {
+            return Short::valueOf;
+        } else if (type == byte.class || type == Byte.class) {
+            return Byte::valueOf;
+        } else if (type == double.class || type == Double.class) {
+            return Double::valueOf;
+        } else if (type == float.class || type == Float.class) {
+            return Float::valueOf;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return value -> value.equals("t") || value.equals("true");
+        } else if (type == String.class) {
+            return value -> value;
+        }
+        throw new IllegalArgumentException("Unsupported column type for copy: " + type.getName());
+    }
+
+    private record Column(
+        String name, MethodHandle getter, MethodHandle setter, Function<String, Object> parser, Object nullValue
+    ) {
+
+        private Object get(Object entity) {
+            try {
+                return (Object) getter.invokeExact(entity);
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void set(Object entity, Object value) {
+            try {
+                setter.invokeExact(entity, value);
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.linq.core.copy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyOut;
+
+/**
+ * Bulk transfer of entities through the PostgreSQL COPY protocol in CSV format.
+ * Entities are encoded and decoded one row at a time, so neither direction buffers the whole data set.
+ * @param <T> the entity type
+ */
+public final class EntityCopy<T> {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final CsvCodec<T> codec;
+
+    private EntityCopy(CsvCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    public static <T> EntityCopy<T> of(Class<T> type) {
+        return new EntityCopy<>(CsvCodec.of(type));
+    }
+
+    /**
+     * Returns the comma separated list of exported columns, in the order they are decoded.
+     */
+    public String columnList() {
+        return codec.columnList();
+    }
+
+    /**
+     * Loads the entities into the entity table. A generated identifier is left out, so the database assigns it
+     * the same way it does on {@link org.linq.core.write.EntityWriter#insertAll insertAll}, but it isn't assigned
+     * back to the entities.
+     * @return number of loaded rows
+     */
+    public long copyIn(Connection connection, Stream<? extends T> entities) throws SQLException {
+        var sql = "COPY %s (%s) FROM STDIN (FORMAT csv)".formatted(codec.table(), codec.loadedColumnList());
+        var copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        try {
+            var buffer = new StringBuilder(BUFFER_SIZE);
+            entities.forEachOrdered(entity -> {
+                codec.encode(entity, buffer);
+                if (buffer.length() >= BUFFER_SIZE) {
+                    write(copyIn, buffer);
+                }
+            });
+            write(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Exports rows of the query as raw CSV.
+     * @param query select query returning columns of {@link #columnList()}, must not contain parameter placeholders
+     * @return number of exported rows
+     */
+    public long copyOut(Connection connection, String query, OutputStream out) throws SQLException, IOException {
+        return connection.unwrap(PGConnection.class).getCopyAPI()
+            .copyOut("COPY (%s) TO STDOUT (FORMAT csv)".formatted(query), out);
+    }
+
+    /**
+     * Returns a lazy stream of entities decoded from rows of the query.
+     * The stream owns the connection and closes it once it is exhausted or closed.
+     * @param query select query returning columns of {@link #columnList()}, must not contain parameter placeholders
+     */
+    public Stream<T> copyOut(Connection connection, String query) throws SQLException {
+        var copyOut = connection.unwrap(PGConnection.class).getCopyAPI()
+            .copyOut("COPY (%s) TO STDOUT (FORMAT csv)".formatted(query));
+        var spliterator = new CopyOutSpliterator(connection, copyOut);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        var bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        buffer.setLength(0);
+    }
+
+    private final class CopyOutSpliterator extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+        private final Connection connection;
+
+        private final CopyOut copyOut;
+
+        private boolean closed;
+
+        private CopyOutSpliterator(Connection connection, CopyOut copyOut) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.connection = connection;
+            this.copyOut = copyOut;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                // the server sends every row in a message of its own
+                var row = copyOut.readFromCopy();
+                if (row == null) {
+                    close();
+                    return false;
+                }
+                action.accept(codec.decode(new String(row, StandardCharsets.UTF_8)));
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try (connection) {
+                if (copyOut.isActive()) {
+                    copyOut.cancelCopy();
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package org.linq.core.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * Bounded pool of connections obtained from the target data source.
+ * Connections that stayed idle longer than the validation interval are validated before being handed out.
+ * Closing a borrowed connection returns it to the pool, unless it or any of its statements and result sets
+ * failed with a connection exception, in which case it is discarded.
+ */
+public class ConnectionPool extends AbstractDataSource implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_SIZE = 10;
+
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(30);
+
+    private static final long VALIDATION_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource target;
+
+    private final int maxSize;
+
+    private final Duration maxWait;
+
+    private final Semaphore permits;
+
+    private final Deque<IdleConnection> idle = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(DataSource target) {
+        this(target, DEFAULT_MAX_SIZE, DEFAULT_MAX_WAIT);
+    }
+
+    public ConnectionPool(DataSource target, int maxSize, Duration maxWait) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("Max wait must not be negative");
+        }
+        this.target = target;
+        this.maxSize = maxSize;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTimeoutException("No connection available within " + maxWait + ", pool size is " + maxSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        try {
+            var connection = borrow();
+            active.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(connection)
+            );
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public PoolMetrics metrics() {
+        return new PoolMetrics(active.get(), idle.size(), waiting.get());
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        IdleConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            closeQuietly(connection.connection());
+        }
+    }
+
+    private Connection borrow() throws SQLException {
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (isUsable(candidate)) {
+                return candidate.connection();
+            }
+            closeQuietly(candidate.connection());
+        }
+        return target.getConnection();
+    }
+
+    private boolean isUsable(IdleConnection candidate) {
+        try {
+            if (candidate.connection().isClosed()) {
+                return false;
+            }
+            return System.nanoTime() - candidate.idleSince() < VALIDATION_INTERVAL_NANOS
+                || candidate.connection().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException _) {
+            return false;
+        }
+    }
+
+    private void release(Connection connection, boolean broken) {
+        active.decrementAndGet();
+        try {
+            if (broken || closed || connection.isClosed()) {
+                closeQuietly(connection);
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            idle.offerFirst(new IdleConnection(connection, System.nanoTime()));
+        } catch (SQLException _) {
+            closeQuietly(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException _) {
+            // connection is discarded anyway
+        }
+    }
+
+    private record IdleConnection(Connection connection, long idleSince) {
+    }
+
+    private final class PooledConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private volatile boolean broken;
+
+        private PooledConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (released.compareAndSet(false, true)) {
+                        release(connection, broken);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released.get() || connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled" + connection;
+                }
+                default -> {
+                }
+            }
+            if (released.get()) {
+                throw new SQLException("Connection is closed");
+            }
+            return call(proxy, connection, method, args);
+        }
+
+        /**
+         * Invokes the method on the target, marking the connection as broken if it fails with a connection exception.
+         * Statements and result sets are returned wrapped, so their failures are detected too.
+         * @param owner proxy of the target, returned by statements and result sets as their connection or statement
+         */
+        private Object call(Object owner, Object target, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                // SQL state class 08 stands for connection exceptions
+                if (e.getCause() instanceof SQLException sqlException
+                    && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith("08")) {
+                    broken = true;
+                }
+                throw e.getCause();
+            }
+            var type = method.getReturnType();
+            if (result == null
+                || type != Statement.class && type != PreparedStatement.class
+                && type != CallableStatement.class && type != ResultSet.class) {
+                return result;
+            }
+            return Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                new DependentHandler(result, owner)
+            );
+        }
+
+        /**
+         * Handler of a statement or a result set of the pooled connection.
+         */
+        private final class DependentHandler implements InvocationHandler {
+
+            private final Object target;
+
+            private final Object owner;
+
+            private DependentHandler(Object target, Object owner) {
+                this.target = target;
+                this.owner = owner;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "getConnection", "getStatement" -> {
+                        if (method.getParameterCount() == 0) {
+                            return owner;
+                        }
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "toString" -> {
+                        return "Pooled" + target;
+                    }
+                    default -> {
+                    }
+                }
+                return call(proxy, target, method, args);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.linq.core.datasource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Data source that opens a new physical connection on every call.
+ * Meant to be used as a target of {@link ConnectionPool}.
+ * For PostgreSQL, batched inserts are rewritten into multi-row inserts unless the url says otherwise.
+ */
+public class DriverManagerDataSource extends AbstractDataSource {
+
+    private final String url;
+
+    private final String username;
+
+    private final String password;
+
+    public DriverManagerDataSource(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        if (url.startsWith("jdbc:postgresql:") && !url.contains("reWriteBatchedInserts")) {
+            properties.setProperty("reWriteBatchedInserts", "true");
+        }
+        return DriverManager.getConnection(url, properties);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+}
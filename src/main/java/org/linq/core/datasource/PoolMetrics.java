@@ -0,0 +1,10 @@
+package org.linq.core.datasource;
+
+/**
+ * Snapshot of connection pool state.
+ * @param active connections currently borrowed from the pool
+ * @param idle open connections available for borrowing
+ * @param waiting threads waiting for a connection to become available
+ */
+public record PoolMetrics(int active, int idle, int waiting) {
+}
@@ -0,0 +1,243 @@
+package org.linq.core.entity;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.linq.core.path.NameResolver;
+import org.linq.core.path.PlainNameResolver;
+import org.linq.core.util.Lookups;
+import org.linq.core.util.Types;
+
+/**
+ * Table, columns and accessors of an entity class, computed once per class and shared by query rendering,
+ * row mapping, writes and copies. Names are taken from {@link Table} and {@link Column} annotations,
+ * or derived by the {@link PlainNameResolver} otherwise.
+ * Static, {@code transient} and {@link Transient} fields are not mapped.
+ * Properties of records are their components, read through accessors and assigned by the canonical constructor only.
+ * @param <T> the entity type
+ */
+public final class EntityMetadata<T> {
+
+    private static final String ID_FIELD = "id";
+
+    private static final ClassValue<EntityMetadata<?>> registry = new ClassValue<>() {
+        @Override
+        protected EntityMetadata<?> computeValue(Class<?> type) {
+            return new EntityMetadata<>(type, new PlainNameResolver());
+        }
+    };
+
+    private final Class<T> type;
+
+    private final String table;
+
+    private final List<Property> properties;
+
+    private final Property id;
+
+    private final Map<String, Property> propertiesByField;
+
+    private final NameResolver nameResolver;
+
+    private final Map<String, String> unmappedColumns = new ConcurrentHashMap<>();
+
+    private EntityMetadata(Class<T> type, NameResolver nameResolver) {
+        this.type = type;
+        this.nameResolver = nameResolver;
+        var tableAnnotation = type.getAnnotation(Table.class);
+        this.table = tableAnnotation != null ? tableAnnotation.value() : nameResolver.tableName(type);
+
+        var lookup = Lookups.lookupFor(type);
+        var fields = new ArrayList<Field>();
+        if (type.isRecord()) {
+            // fields of components, in order of parameters of the canonical constructor
+            for (var component : type.getRecordComponents()) {
+                var field = componentField(type, component);
+                if (!field.isAnnotationPresent(Transient.class)) {
+                    fields.add(field);
+                }
+            }
+        } else {
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (var field : current.getDeclaredFields()) {
+                    var modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isAnnotationPresent(Transient.class)) {
+                        fields.add(field);
+                    }
+                }
+            }
+        }
+        var idField = fields.stream().filter(field -> field.isAnnotationPresent(Id.class)).findFirst()
+            .or(() -> fields.stream().filter(field -> field.getName().equals(ID_FIELD)).findFirst())
+            .orElse(null);
+
+        var properties = new ArrayList<Property>(fields.size());
+        var propertiesByField = HashMap.<String, Property>newHashMap(fields.size());
+        Property id = null;
+        for (var field : fields) {
+            var property = property(type, field, field == idField, nameResolver, lookup);
+            properties.add(property);
+            propertiesByField.putIfAbsent(field.getName(), property);
+            if (property.id()) {
+                id = property;
+            }
+        }
+        this.properties = List.copyOf(properties);
+        this.propertiesByField = Map.copyOf(propertiesByField);
+        this.id = id;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMetadata<T> of(Class<T> type) {
+        return (EntityMetadata<T>) registry.get(type);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    /**
+     * Returns mapped properties, including the identifier, in order of declaration starting with the entity class.
+     */
+    public List<Property> properties() {
+        return properties;
+    }
+
+    public Optional<Property> id() {
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * Returns the mapped property of the field, or of the record component.
+     */
+    public Optional<Property> property(String field) {
+        return Optional.ofNullable(propertiesByField.get(field));
+    }
+
+    /**
+     * Returns the column of the field. Names of fields that are not mapped, e.g. of accessors without a backing
+     * field, are derived by the name resolver once and remembered.
+     */
+    public String columnName(String field) {
+        var property = propertiesByField.get(field);
+        if (property != null) {
+            return property.column();
+        }
+        return unmappedColumns.computeIfAbsent(field, nameResolver::columnName);
+    }
+
+    private static Property property(
+        Class<?> type,
+        Field field,
+        boolean id,
+        NameResolver nameResolver,
+        MethodHandles.Lookup lookup
+    ) {
+        var columnAnnotation = field.getAnnotation(Column.class);
+        var idAnnotation = field.getAnnotation(Id.class);
+        var component = type.isRecord() ? component(type, field.getName()) : null;
+        String column;
+        if (columnAnnotation != null) {
+            column = columnAnnotation.value();
+        } else if (component != null) {
+            column = nameResolver.columnName(component);
+        } else {
+            column = nameResolver.columnName(field.getName());
+        }
+        return new Property(
+            field.getName(),
+            column,
+            field.getType(),
+            id,
+            id && idAnnotation != null && idAnnotation.generated() && Number.class.isAssignableFrom(Types.boxed(field.getType())),
+            component != null ? accessor(component, lookup) : getter(field, lookup),
+            component != null ? null : setter(type, field, lookup)
+        );
+    }
+
+    private static Field componentField(Class<?> type, RecordComponent component) {
+        try {
+            return type.getDeclaredField(component.getName());
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Record " + type.getName() + " has no field of component " + component.getName(), e);
+        }
+    }
+
+    private static RecordComponent component(Class<?> type, String name) {
+        for (var component : type.getRecordComponents()) {
+            if (component.getName().equals(name)) {
+                return component;
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle accessor(RecordComponent component, MethodHandles.Lookup lookup) {
+        try {
+            return lookup.unreflect(component.getAccessor());
+        } catch (IllegalAccessException _) {
+            return null;
+        }
+    }
+
+    private static MethodHandle getter(Field field, MethodHandles.Lookup lookup) {
+        try {
+            return lookup.unreflectGetter(field);
+        } catch (IllegalAccessException _) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves a setter for the field, preferring a public set method over direct field access.
+     */
+    private static MethodHandle setter(Class<?> type, Field field, MethodHandles.Lookup lookup) {
+        var name = "set" + field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
+        try {
+            return lookup.unreflect(type.getMethod(name, field.getType()));
+        } catch (NoSuchMethodException | IllegalAccessException _) {
+            // fall back to the field itself
+        }
+        if (Modifier.isFinal(field.getModifiers())) {
+            return null;
+        }
+        try {
+            return lookup.unreflectSetter(field);
+        } catch (IllegalAccessException _) {
+            return null;
+        }
+    }
+
+    /**
+     * Mapped field of an entity.
+     * @param field name of the field
+     * @param column name of the column
+     * @param type type of the field
+     * @param id whether the field identifies rows
+     * @param generated whether the identifier is generated by the database on insert
+     * @param getter handle of type (entity)fieldType, null if the field can't be read
+     * @param setter handle of type (entity, fieldType)void, null if the field can't be written
+     */
+    public record Property(
+        String field,
+        String column,
+        Class<?> type,
+        boolean id,
+        boolean generated,
+        MethodHandle getter,
+        MethodHandle setter
+    ) {
+    }
+}
@@ -0,0 +1,20 @@
+package org.linq.core.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the field identifying rows of the entity. Without it, a field named {@code id} is the identifier.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Id {
+
+    /**
+     * Whether the value is generated by the database on insert. Only numeric identifiers can be generated.
+     * Identifiers are inserted as set on the entity unless they are declared generated.
+     */
+    boolean generated() default false;
+}
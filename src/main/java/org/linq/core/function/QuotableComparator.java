@@ -0,0 +1,7 @@
+package org.linq.core.function;
+
+import java.lang.reflect.code.Quotable;
+import java.util.Comparator;
+
+public interface QuotableComparator<T> extends Comparator<T>, Quotable {
+}
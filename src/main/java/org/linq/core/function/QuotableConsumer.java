@@ -0,0 +1,7 @@
+package org.linq.core.function;
+
+import java.lang.reflect.code.Quotable;
+import java.util.function.Consumer;
+
+public interface QuotableConsumer<T> extends Consumer<T>, Quotable {
+}
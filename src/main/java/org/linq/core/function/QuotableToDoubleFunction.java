@@ -0,0 +1,7 @@
+package org.linq.core.function;
+
+import java.lang.reflect.code.Quotable;
+import java.util.function.ToDoubleFunction;
+
+public interface QuotableToDoubleFunction<T> extends ToDoubleFunction<T>, Quotable {
+}
@@ -0,0 +1,307 @@
+package org.linq.core.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import org.linq.core.entity.EntityMetadata;
+import org.linq.core.util.Lookups;
+
+/**
+ * Maps rows to instances of an entity class. The constructor is resolved to a method handle once per class
+ * and property setters are taken from the entity metadata, column indices are resolved once per result set.
+ * Records are created by their canonical constructor, composed once per class with getters of its components,
+ * so a row is mapped by a single invocation without intermediate arrays or boxing.
+ * @param <T> the entity type
+ */
+public final class EntityMapper<T> implements RowMapperFactory<T> {
+
+    private static final ClassValue<EntityMapper<?>> mappers = new ClassValue<>() {
+        @Override
+        protected EntityMapper<?> computeValue(Class<?> type) {
+            return new EntityMapper<>(EntityMetadata.of(type));
+        }
+    };
+
+    private static final MethodHandle IS_PRESENT;
+
+    static {
+        try {
+            IS_PRESENT = MethodHandles.lookup().findStatic(
+                EntityMapper.class,
+                "isPresent",
+                MethodType.methodType(boolean.class, int.class)
+            );
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandle constructor;
+
+    private final List<Property> properties;
+
+    /**
+     * Lower case columns of record components in order of the canonical constructor, null for unmapped components.
+     * Null for classes other than records.
+     */
+    private final List<String> components;
+
+    private EntityMapper(EntityMetadata<T> entity) {
+        var type = entity.type();
+        if (type.isRecord()) {
+            var components = new ArrayList<String>();
+            for (var component : type.getRecordComponents()) {
+                components.add(entity.property(component.getName())
+                    .map(property -> property.column().toLowerCase(Locale.ROOT))
+                    .orElse(null));
+            }
+            this.components = components;
+            this.constructor = canonicalConstructor(type);
+            this.properties = List.of();
+            return;
+        }
+        this.components = null;
+        try {
+            this.constructor = Lookups.lookupFor(type).findConstructor(type, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Entity " + type.getName() + " must declare an accessible no-arg constructor", e);
+        }
+        this.properties = entity.properties().stream()
+            .filter(property -> property.setter() != null)
+            .map(property -> new Property(property.column().toLowerCase(Locale.ROOT), reader(property.type(), property.setter())))
+            .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMapper<T> of(Class<T> type) {
+        return (EntityMapper<T>) mappers.get(type);
+    }
+
+    /**
+     * Binds properties of the entity to the columns of the result set.
+     * Properties without a matching column are left untouched.
+     * @param metaData metadata of the result set to be mapped
+     * @return the row mapper for the result set
+     */
+    @Override
+    public RowMapper<T> bind(ResultSetMetaData metaData) throws SQLException {
+        var columns = new HashMap<String, Integer>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        if (components != null) {
+            var indices = new int[components.size()];
+            for (int i = 0; i < indices.length; i++) {
+                var column = components.get(i);
+                var index = column != null ? columns.get(column) : null;
+                indices[i] = index != null ? index : 0;
+            }
+            return new RecordMapper<>(constructor, indices);
+        }
+        var readers = new ArrayList<ColumnReader>();
+        var indices = new ArrayList<Integer>();
+        for (var property : properties) {
+            var index = columns.get(property.column());
+            if (index != null) {
+                readers.add(property.reader());
+                indices.add(index);
+            }
+        }
+        return new BoundMapper<>(
+            constructor,
+            readers.toArray(new ColumnReader[0]),
+            indices.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    /**
+     * Composes the canonical constructor of the record with getters of its components into a handle of type
+     * (ResultSet, int[])Object, which takes column indices of components. Components without a column,
+     * i.e. with index 0, get the default value of their type.
+     */
+    private static MethodHandle canonicalConstructor(Class<?> type) {
+        var components = type.getRecordComponents();
+        var parameterTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            parameterTypes[i] = components[i].getType();
+        }
+        MethodHandle constructor;
+        try {
+            constructor = Lookups.lookupFor(type).findConstructor(type, MethodType.methodType(void.class, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Canonical constructor of " + type.getName() + " is not accessible", e);
+        }
+        // replace parameters from the last one, so indices of the remaining ones don't shift
+        for (int i = components.length - 1; i >= 0; i--) {
+            constructor = MethodHandles.collectArguments(constructor, i, getter(parameterTypes[i], i));
+        }
+        var reorder = new int[components.length * 2];
+        for (int i = 0; i < components.length; i++) {
+            reorder[i * 2] = 0;
+            reorder[i * 2 + 1] = 1;
+        }
+        return MethodHandles.permuteArguments(
+            constructor.asType(constructor.type().changeReturnType(Object.class)),
+            MethodType.methodType(Object.class, ResultSet.class, int[].class),
+            reorder
+        );
+    }
+
+    /**
+     * Returns a handle of type (ResultSet, int[])type, reading the column at the given position of the indices.
+     */
+    private static MethodHandle getter(Class<?> type, int position) {
+        MethodHandle get;
+        try {
+            var lookup = MethodHandles.publicLookup();
+            if (type == long.class || type == int.class || type == short.class || type == byte.class
+                || type == double.class || type == float.class || type == boolean.class || type == String.class) {
+                var name = "get" + type.getSimpleName().substring(0, 1).toUpperCase(Locale.ROOT) + type.getSimpleName().substring(1);
+                get = lookup.findVirtual(ResultSet.class, name, MethodType.methodType(type, int.class));
+            } else {
+                get = MethodHandles.insertArguments(
+                    lookup.findVirtual(ResultSet.class, "getObject", MethodType.methodType(Object.class, int.class, Class.class)),
+                    2,
+                    type
+                ).asType(MethodType.methodType(type, ResultSet.class, int.class));
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        var index = MethodHandles.insertArguments(MethodHandles.arrayElementGetter(int[].class), 1, position);
+        var read = MethodHandles.filterArguments(get, 1, index);
+        var absent = MethodHandles.dropArguments(MethodHandles.zero(type), 0, ResultSet.class, int[].class);
+        var present = MethodHandles.dropArguments(MethodHandles.filterArguments(IS_PRESENT, 0, index), 0, ResultSet.class);
+        return MethodHandles.guardWithTest(present, read, absent);
+    }
+
+    private static boolean isPresent(int index) {
+        return index > 0;
+    }
+
+    /**
+     * Returns a reader passing the column to the setter. Setters are invoked in statement position,
+     * where the exact type of the invocation is void.
+     */
+    private static ColumnReader reader(Class<?> type, MethodHandle setter) {
+        if (type == long.class) {
+            var handle = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+            return (resultSet, index, target) -> {
+                handle.invokeExact(target, resultSet.getLong(index));
+            };
+        } else if (type == int.class) {
+            var handle = setter.asType(MethodType.methodType(void.class, Object.class, int.class));
+            return (resultSet, index, target) -> {
+                handle.invokeExact(target, resultSet.getInt(index));
+            };
+        } else if (type == short.class) {
+            var handle = setter.asType(MethodType.methodType(void.class, Object.class, short.class));
+            return (resultSet, index, target) -> {
+                handle.invokeExact(target, resultSet.getShort(index));
+            };
+        } else if (type == byte.class) {
+            var handle = setter.asType(MethodType.methodType(void.class, Object.class, byte.class));
+            return (resultSet, index, target) -> {
+                handle.invokeExact(target, resultSet.getByte(index));
+            };
+        } else if (type == double.class) {
+            var handle = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+            return (resultSet, index, target) -> {
+                handle.invokeExact(target, resultSet.getDouble(index));
+            };
+        } else if (type == float.class) {
+            var handle = setter.asType(MethodType.methodType(void.class, Object.class, float.class));
+            return (resultSet, index, target) -> {
+                handle.invokeExact(target, resultSet.getFloat(index));
+            };
+        } else if (type == boolean.class) {
+            var handle = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+            return (resultSet, index, target) -> {
+                handle.invokeExact(target, resultSet.getBoolean(index));
+            };
+        } else if (type == String.class) {
+            var handle = setter.asType(MethodType.methodType(void.class, Object.class, String.class));
+            return (resultSet, index, target) -> {
+                handle.invokeExact(target, resultSet.getString(index));
+            };
+        }
+        var handle = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (resultSet, index, target) -> {
+            handle.invokeExact(target, resultSet.getObject(index, type));
+        };
+    }
+
+    /**
+     * @param column lower case name of the column, matched against lower case column labels
+     */
+    private record Property(String column, ColumnReader reader) {
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        void read(ResultSet resultSet, int index, Object target) throws Throwable;
+    }
+
+    private static final class BoundMapper<T> implements RowMapper<T> {
+
+        private final MethodHandle constructor;
+
+        private final ColumnReader[] readers;
+
+        private final int[] indices;
+
+        private BoundMapper(MethodHandle constructor, ColumnReader[] readers, int[] indices) {
+            this.constructor = constructor;
+            this.readers = readers;
+            this.indices = indices;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T map(ResultSet resultSet) throws SQLException {
+            try {
+                var entity = (Object) constructor.invokeExact();
+                for (int i = 0; i < readers.length; i++) {
+                    readers[i].read(resultSet, indices[i], entity);
+                }
+                return (T) entity;
+            } catch (SQLException | RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static final class RecordMapper<T> implements RowMapper<T> {
+
+        private final MethodHandle constructor;
+
+        private final int[] indices;
+
+        private RecordMapper(MethodHandle constructor, int[] indices) {
+            this.constructor = constructor;
+            this.indices = indices;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T map(ResultSet resultSet) throws SQLException {
+            try {
+                return (T) (Object) constructor.invokeExact(resultSet, indices);
+            } catch (SQLException | RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.linq.core.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row of the result set. Implementations must not move the cursor.
+     */
+    T map(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,13 @@
+package org.linq.core.mapping;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface RowMapperFactory<T> {
+
+    /**
+     * Creates a row mapper for result sets of the given shape.
+     */
+    RowMapper<T> bind(ResultSetMetaData metaData) throws SQLException;
+}
@@ -1,9 +1,11 @@
 package org.linq.core.operand;
 
+import org.linq.core.sql.SqlNode;
+
 record ColumnValue(String fieldName) implements PlainValue {
 
     @Override
-    public String getValueAsString() {
-        return "!" + fieldName;
+    public SqlNode toSql() {
+        return SqlNode.column(fieldName);
     }
 }
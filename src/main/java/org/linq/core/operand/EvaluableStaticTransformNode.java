@@ -3,7 +3,6 @@ package org.linq.core.operand;
 import java.lang.reflect.code.Op;
 import java.lang.reflect.code.Value;
 import java.util.Map;
-import org.linq.core.util.Values;
 
 class EvaluableStaticTransformNode extends StaticTransformNode {
 
@@ -12,6 +11,6 @@ class EvaluableStaticTransformNode extends StaticTransformNode {
     }
 
     public static EvaluableStaticTransformNode newEvaluableStaticTransformNode(Op op, Map<Value, Object> capturedValues) {
-        return new EvaluableStaticTransformNode(LiteralValue.of(Values.valueOf(op, capturedValues)));
+        return new EvaluableStaticTransformNode(EvaluatedValue.of(op, capturedValues));
     }
 }
@@ -3,7 +3,6 @@ package org.linq.core.operand;
 import java.lang.reflect.code.Op;
 import java.lang.reflect.code.Value;
 import java.util.Map;
-import org.linq.core.util.Values;
 
 class EvaluableTransformNode extends TransformNode {
 
@@ -12,6 +11,6 @@ class EvaluableTransformNode extends TransformNode {
     }
 
     public static EvaluableTransformNode newEvaluableTransformNode(Op op, Map<Value, Object> capturedValues) {
-        return new EvaluableTransformNode(LiteralValue.of(Values.valueOf(op, capturedValues)));
+        return new EvaluableTransformNode(EvaluatedValue.of(op, capturedValues));
     }
 }
@@ -0,0 +1,37 @@
+package org.linq.core.operand;
+
+import java.lang.reflect.code.Op;
+import java.lang.reflect.code.Value;
+import java.lang.reflect.code.op.CoreOp;
+import java.util.Map;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Captures;
+import org.linq.core.util.CompiledValue;
+import org.linq.core.util.Dependencies;
+
+/**
+ * Value of a client-side expression. It is compiled once on translation and evaluated against the captured values
+ * bound at render time, so the same translated operand can be reused for every invocation of a lambda.
+ */
+record EvaluatedValue(CompiledValue value) implements PlainValue {
+
+    /**
+     * Creates a plain value for the op. Constants are inlined, everything else is compiled and evaluated on render.
+     * Callers check that the op is evaluable with {@link Dependencies} first.
+     * @throws IllegalStateException if op depends on the row
+     */
+    static PlainValue of(Op op, Map<Value, Object> capturedValues) {
+        if (op instanceof CoreOp.ConstantOp constantOp) {
+            return LiteralValue.of(constantOp.value());
+        }
+        if (!Dependencies.of(op, capturedValues).isEvaluable()) {
+            throw new IllegalStateException("Value of " + op.opName() + " depends on the row and can't be evaluated on the client");
+        }
+        return new EvaluatedValue(CompiledValue.of(op));
+    }
+
+    @Override
+    public SqlNode toSql() {
+        return SqlNode.parameter(value.evaluate(Captures.current()));
+    }
+}
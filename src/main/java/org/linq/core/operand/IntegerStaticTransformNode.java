@@ -4,9 +4,9 @@ import java.lang.reflect.code.Value;
 import java.lang.reflect.code.op.CoreOp;
 import java.util.ArrayList;
 import java.util.Map;
-import org.linq.core.exceptions.UncapturedValueException;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Dependencies;
 import org.linq.core.util.Operands;
-import org.linq.core.util.Values;
 
 class IntegerStaticTransformNode extends StaticTransformNode {
 
@@ -19,34 +19,32 @@ class IntegerStaticTransformNode extends StaticTransformNode {
     }
 
     public static IntegerStaticTransformNode newIntTransformNode(CoreOp.InvokeOp invokeOp, Map<Value, Object> capturedValues) {
-        try {
-            return new IntegerStaticTransformNode(new IntLiteralValue(Values.valueOf(invokeOp, capturedValues)));
-        } catch (UncapturedValueException _) {
-            var transformer = IntegerTransformer.of(invokeOp);
-            var args = new ArrayList<>(Operands.paramsOf(invokeOp, capturedValues));
-            args.add(new TransformNode(StringLiteralValue.ofRaw("INTEGER")) {});
-            return new IntegerStaticTransformNode(new StaticTransformerWithArgs(transformer, args.toArray(new Operand[0])));
+        if (Dependencies.of(invokeOp, capturedValues).isEvaluable()) {
+            return new IntegerStaticTransformNode(EvaluatedValue.of(invokeOp, capturedValues));
         }
+        var transformer = IntegerTransformer.of(invokeOp);
+        var args = new ArrayList<>(Operands.paramsOf(invokeOp, capturedValues));
+        args.add(new TransformNode(StringLiteralValue.ofRaw("INTEGER")) {});
+        return new IntegerStaticTransformNode(new StaticTransformerWithArgs(transformer, args.toArray(new Operand[0])));
     }
 
     private enum IntegerTransformer implements StaticTransformer {
         GET_INTEGER {
             @Override
-            public String transform(Operand... args) {
-                var name = args[0].getAsString();
+            public SqlNode transform(Operand... args) {
+                var name = (String) SqlNode.valueOf(args[0].toSql());
                 if (args.length == 2) {
-                    return Integer.getInteger(name).toString();
+                    return SqlNode.parameter(Integer.getInteger(name));
                 } else {
-                    var defaultValue = args[1].getAsString();
                     var propValue = Integer.getInteger(name);
-                    return propValue == null ? defaultValue : propValue.toString();
+                    return propValue == null ? args[1].toSql() : SqlNode.parameter(propValue);
                 }
             }
         },
         TO_UNSIGNED_LONG {
             @Override
-            public String transform(Operand... args) {
-                return "CAST(CAST( " + args[0].getAsString() + " AS NUMERIC) AS BIGINT)";
+            public SqlNode transform(Operand... args) {
+                return SqlNode.of("CAST(CAST(", args[0].toSql(), " AS NUMERIC) AS BIGINT)");
             }
         },;
 
@@ -58,10 +56,4 @@ class IntegerStaticTransformNode extends StaticTransformNode {
             };
         }
     }
-
-    private static class IntLiteralValue extends LiteralValue<Integer> {
-        IntLiteralValue(Integer value) {
-            super(value);
-        }
-    }
 }
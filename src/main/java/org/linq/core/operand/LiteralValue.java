@@ -1,5 +1,7 @@
 package org.linq.core.operand;
 
+import org.linq.core.sql.SqlNode;
+
 class LiteralValue<T> implements PlainValue {
 
     protected final T value;
@@ -18,7 +20,7 @@ class LiteralValue<T> implements PlainValue {
     }
 
     @Override
-    public String getValueAsString() {
-        return String.valueOf(value);
+    public SqlNode toSql() {
+        return SqlNode.parameter(value);
     }
 }
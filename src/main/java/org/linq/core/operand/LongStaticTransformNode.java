@@ -4,9 +4,9 @@ import java.lang.reflect.code.Value;
 import java.lang.reflect.code.op.CoreOp;
 import java.util.ArrayList;
 import java.util.Map;
-import org.linq.core.exceptions.UncapturedValueException;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Dependencies;
 import org.linq.core.util.Operands;
-import org.linq.core.util.Values;
 
 class LongStaticTransformNode extends StaticTransformNode {
 
@@ -19,27 +19,25 @@ class LongStaticTransformNode extends StaticTransformNode {
     }
 
     public static LongStaticTransformNode newLongTransformNode(CoreOp.InvokeOp invokeOp, Map<Value, Object> capturedValues) {
-        try {
-            return new LongStaticTransformNode(new LongLiteralValue(Values.valueOf(invokeOp, capturedValues)));
-        } catch (UncapturedValueException _) {
-            var transformer = LongTransformer.of(invokeOp);
-            var args = new ArrayList<>(Operands.paramsOf(invokeOp, capturedValues));
-            args.add(new TransformNode(StringLiteralValue.ofRaw("BIGINT")) {});
-            return new LongStaticTransformNode(new StaticTransformerWithArgs(transformer, args.toArray(new Operand[0])));
+        if (Dependencies.of(invokeOp, capturedValues).isEvaluable()) {
+            return new LongStaticTransformNode(EvaluatedValue.of(invokeOp, capturedValues));
         }
+        var transformer = LongTransformer.of(invokeOp);
+        var args = new ArrayList<>(Operands.paramsOf(invokeOp, capturedValues));
+        args.add(new TransformNode(StringLiteralValue.ofRaw("BIGINT")) {});
+        return new LongStaticTransformNode(new StaticTransformerWithArgs(transformer, args.toArray(new Operand[0])));
     }
 
     private enum LongTransformer implements StaticTransformer {
         GET_LONG {
             @Override
-            public String transform(Operand... args) {
-                var name = args[0].getAsString();
+            public SqlNode transform(Operand... args) {
+                var name = (String) SqlNode.valueOf(args[0].toSql());
                 if (args.length == 2) {
-                    return Long.getLong(name).toString();
+                    return SqlNode.parameter(Long.getLong(name));
                 } else {
-                    var defaultValue = args[1].getAsString();
                     var propValue = Long.getLong(name);
-                    return propValue == null ? defaultValue : propValue.toString();
+                    return propValue == null ? args[1].toSql() : SqlNode.parameter(propValue);
                 }
             }
         };
@@ -51,10 +49,4 @@ class LongStaticTransformNode extends StaticTransformNode {
             };
         }
     }
-
-    private static class LongLiteralValue extends LiteralValue<Long> {
-        LongLiteralValue(Long value) {
-            super(value);
-        }
-    }
 }
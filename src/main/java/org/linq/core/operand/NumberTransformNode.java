@@ -4,11 +4,11 @@ import java.lang.reflect.code.Op;
 import java.lang.reflect.code.Value;
 import java.lang.reflect.code.op.CoreOp;
 import java.util.Map;
-import org.linq.core.exceptions.UncapturedValueException;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Dependencies;
 import org.linq.core.util.Extracts;
 import org.linq.core.util.Operands;
 import org.linq.core.util.Ops;
-import org.linq.core.util.Values;
 
 public class NumberTransformNode extends TransformNode {
 
@@ -22,19 +22,18 @@ public class NumberTransformNode extends TransformNode {
 
     static NumberTransformNode newIntTransformNode(Op op, Map<Value, Object> capturedValues) {
         if (Ops.isTerminal(op)) {
-            return new NumberTransformNode(new IntLiteralValue(Values.valueOf(op, capturedValues)));
+            return new NumberTransformNode(EvaluatedValue.of(op, capturedValues));
         } else if (Ops.isColumnAccessor(op, capturedValues)) {
             return new NumberTransformNode(new ColumnValue(Extracts.accessorToFieldName(op)));
         }
 
-        try {
-            return new NumberTransformNode(new IntLiteralValue(Values.valueOf(op, capturedValues)));
-        } catch (UncapturedValueException _) {
-            return new NumberTransformNode(
-                Operand.of(Ops.prevOp(op).orElseThrow(), capturedValues),
-                transformerWithArgs((CoreOp.InvokeOp) op, capturedValues)
-            );
+        if (Dependencies.of(op, capturedValues).isEvaluable()) {
+            return new NumberTransformNode(EvaluatedValue.of(op, capturedValues));
         }
+        return new NumberTransformNode(
+            Operand.of(Ops.prevOp(op).orElseThrow(), capturedValues),
+            transformerWithArgs((CoreOp.InvokeOp) op, capturedValues)
+        );
     }
 
     private static TransformerWithArgs transformerWithArgs(CoreOp.InvokeOp invokeOp, Map<Value, Object> capturedValues) {
@@ -46,50 +45,50 @@ public class NumberTransformNode extends TransformNode {
     private enum IntTransformer implements Transformer {
         ABS {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "ABS(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("ABS", field);
             }
         },
         CEIL {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "CEIL(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("CEIL", field);
             }
         },
         FLOOR {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "FLOOR(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("FLOOR", field);
             }
         },
         ROUND {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "ROUND(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("ROUND", field);
             }
         },
         SIGNUM {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "SIGNUM(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("SIGNUM", field);
             }
         },
         SQRT {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "SQRT(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("SQRT", field);
             }
         },
         MAX {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "MAX(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("MAX", field);
             }
         },
         MIN {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "MIN(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("MIN", field);
             }
         };
 
@@ -107,12 +106,4 @@ public class NumberTransformNode extends TransformNode {
             };
         }
     }
-
-    private static class IntLiteralValue extends LiteralValue<Integer> {
-
-        private IntLiteralValue(Integer value) {
-            super(value);
-        }
-
-    }
 }
@@ -1,184 +1,198 @@
 package org.linq.core.operand;
 
+import java.util.ArrayList;
+import org.linq.core.sql.SqlNode;
+
 enum NumericStaticTransformer implements StaticTransformer {
     VALUE_OF {
         @Override
-        public String transform(Operand... args) {
+        public SqlNode transform(Operand... args) {
             // TODO add support for other radixes
-            return "CAST(" + args[0].getAsString() + " AS %s)".formatted(getNumericType(args));
+            return cast(args[0].toSql(), getNumericType(args));
         }
     },
     PARSE {
         @Override
-        public String transform(Operand... args) {
+        public SqlNode transform(Operand... args) {
             // TODO add support for other radixes
-            return "CAST(" + args[0].getAsString() + " AS %s)".formatted(getNumericType(args));
+            return cast(args[0].toSql(), getNumericType(args));
         }
     },
     PARSE_UNSIGNED {
         @Override
-        public String transform(Operand... args) {
+        public SqlNode transform(Operand... args) {
             var highestBit = getHighestBit(getNumericType(args));
             // TODO add support for other radixes
-            return NumericStaticTransformer.toUnsigned("CAST( " + args[0].getAsString() + " AS BIGINT)", highestBit);
+            return NumericStaticTransformer.toUnsigned(cast(args[0].toSql(), "BIGINT"), highestBit);
         }
     },
     BIT_COUNT {
         @Override
-        public String transform(Operand... args) {
+        public SqlNode transform(Operand... args) {
             // TODO use BIT_COUNT for T-SQL
-            var num = args[0].getAsString();
-            var builder = new StringBuilder("CAST(");
+            var num = args[0].toSql();
+            var bits = new ArrayList<SqlNode>(64);
             for (int i = 0; i < 64; i++) {
-                builder.append("((").append(num).append(" & ").append((int) Math.pow(2, i)).append(") >> ").append(i).append(") + ");
+                bits.add(SqlNode.of("((", num, " & " + (int) Math.pow(2, i) + ") >> " + i + ")"));
             }
-            builder.delete(builder.length() - 3, builder.length());
-            builder.append(" AS %s)".formatted(getNumericType(args)));
-            return builder.toString();
+            return cast(SqlNode.join(" + ", bits), getNumericType(args));
         }
     },
     COMPARE {
         @Override
-        public String transform(Operand... args) {
-            return "SIGN(" + args[0].getAsString() + " - " + args[1].getAsString() + ")";
+        public SqlNode transform(Operand... args) {
+            return SqlNode.call("SIGN", SqlNode.binary(args[0].toSql(), "-", args[1].toSql()));
         }
     },
     COMPARE_UNSIGNED {
         @Override
-        public String transform(Operand... args) {
+        public SqlNode transform(Operand... args) {
             var highestBit = getHighestBit(getNumericType(args));
-            return "SIGN((" + NumericStaticTransformer.toUnsigned(args[0].getAsString(), highestBit) + ") - ("
-                + NumericStaticTransformer.toUnsigned(args[1].getAsString(), highestBit) + "))";
+            return SqlNode.call("SIGN", SqlNode.binary(
+                SqlNode.parenthesized(NumericStaticTransformer.toUnsigned(args[0].toSql(), highestBit)),
+                "-",
+                SqlNode.parenthesized(NumericStaticTransformer.toUnsigned(args[1].toSql(), highestBit))
+            ));
         }
     },
     HIGHEST_ONE_BIT {
         @Override
-        public String transform(Operand... args) {
-            return "POWER(2, FLOOR(LOG(ABS(" + args[0].getAsString() + "), 2)))";
+        public SqlNode transform(Operand... args) {
+            return SqlNode.call("POWER", SqlNode.text("2"), SqlNode.call("FLOOR",
+                SqlNode.call("LOG", SqlNode.call("ABS", args[0].toSql()), SqlNode.text("2"))));
         }
     },
     LOWEST_ONE_BIT {
         @Override
-        public String transform(Operand... args) {
-            return "POWER(2, FLOOR(LOG(ABS(" + args[0].getAsString() + " & -" + args[0].getAsString() + ", 2)))";
+        public SqlNode transform(Operand... args) {
+            var num = args[0].toSql();
+            return SqlNode.call("POWER", SqlNode.text("2"), SqlNode.call("FLOOR",
+                SqlNode.call("LOG", SqlNode.call("ABS", SqlNode.of(num, " & -", num)), SqlNode.text("2"))));
         }
     },
     MAX {
         @Override
-        public String transform(Operand... args) {
-            return "MAX(" + args[0].getAsString() + ", " + args[1].getAsString() + ")";
+        public SqlNode transform(Operand... args) {
+            return SqlNode.call("MAX", args[0].toSql(), args[1].toSql());
         }
     },
     MIN {
         @Override
-        public String transform(Operand... args) {
-            return "MIN(" + args[0].getAsString() + ", " + args[1].getAsString() + ")";
+        public SqlNode transform(Operand... args) {
+            return SqlNode.call("MIN", args[0].toSql(), args[1].toSql());
         }
     },
     NUMBER_OF_LEADING_ZEROS {
         @Override
-        public String transform(Operand... args) {
-            return "CASE WHEN " + args[0].getAsString() +
-                " = 0 THEN 64 ELSE FLOOR(LOG(ABS(" + args[0].getAsString() + "), 2)) END";
+        public SqlNode transform(Operand... args) {
+            var num = args[0].toSql();
+            return SqlNode.of("CASE WHEN ", num, " = 0 THEN 64 ELSE ",
+                SqlNode.call("FLOOR", SqlNode.call("LOG", SqlNode.call("ABS", num), SqlNode.text("2"))), " END");
         }
     },
     NUMBER_OF_TRAILING_ZEROS {
         @Override
-        public String transform(Operand... args) {
-            return "CASE WHEN " + args[0].getAsString() +
-                " = 0 THEN 64 ELSE FLOOR(LOG(ABS(" + args[0].getAsString() + " & -" + args[0].getAsString() + ", 2)) END";
+        public SqlNode transform(Operand... args) {
+            var num = args[0].toSql();
+            return SqlNode.of("CASE WHEN ", num, " = 0 THEN 64 ELSE ",
+                SqlNode.call("FLOOR", SqlNode.call("LOG", SqlNode.call("ABS", SqlNode.of(num, " & -", num)), SqlNode.text("2"))),
+                " END");
         }
     },
     REMAINDER_UNSIGNED {
         @Override
-        public String transform(Operand... args) {
+        public SqlNode transform(Operand... args) {
             var highestBit = getHighestBit(getNumericType(args));
-            return "MOD(" + NumericStaticTransformer.toUnsigned(args[0].getAsString(), highestBit) + ", " + args[1].getAsString() + ")";
+            return SqlNode.call("MOD", NumericStaticTransformer.toUnsigned(args[0].toSql(), highestBit), args[1].toSql());
         }
     },
     REVERSE {
         @Override
-        public String transform(Operand... args) {
-            return "CAST(REVERSE(" + args[0].getAsString() + ") AS %s)".formatted(getNumericType(args));
+        public SqlNode transform(Operand... args) {
+            return cast(SqlNode.call("REVERSE", args[0].toSql()), getNumericType(args));
         }
     },
     REVERSE_BYTES {
         @Override
-        public String transform(Operand... args) {
-            return "CAST(REVERSE(BIN(" + args[0].getAsString() + ")) AS %s)".formatted(getNumericType(args));
+        public SqlNode transform(Operand... args) {
+            return cast(SqlNode.call("REVERSE", SqlNode.call("BIN", args[0].toSql())), getNumericType(args));
         }
     },
     SIGNUM {
         @Override
-        public String transform(Operand... args) {
-            return "SIGN(" + args[0].getAsString() + ")";
+        public SqlNode transform(Operand... args) {
+            return SqlNode.call("SIGN", args[0].toSql());
         }
     },
     SUM {
         @Override
-        public String transform(Operand... args) {
-            return args[0].getAsString() + " + " + args[1].getAsString();
+        public SqlNode transform(Operand... args) {
+            return SqlNode.binary(args[0].toSql(), "+", args[1].toSql());
         }
     },
     ROTATE_LEFT {
         @Override
-        public String transform(Operand... args) {
-            var num = args[0].getAsString();
-            var shift = args[1].getAsString();
-            return "(((" + num + " << " + shift + ") & " + Integer.MIN_VALUE + ") | ((" + num + " >> (32 - "
-                + shift + ") & " + Integer.MIN_VALUE + "))";
+        public SqlNode transform(Operand... args) {
+            var num = args[0].toSql();
+            var shift = args[1].toSql();
+            return SqlNode.of("(((", num, " << ", shift, ") & " + Integer.MIN_VALUE + ") | ((", num, " >> (32 - ",
+                shift, ") & " + Integer.MIN_VALUE + "))");
         }
     },
     ROTATE_RIGHT {
         @Override
-        public String transform(Operand... args) {
-            var num = args[0].getAsString();
-            var shift = args[1].getAsString();
-            return "(((" + num + " >> " + shift + ") & " + Integer.MIN_VALUE + ") | ((" + num + " << (32 - "
-                + shift + ") & " + Integer.MIN_VALUE + "))";
+        public SqlNode transform(Operand... args) {
+            var num = args[0].toSql();
+            var shift = args[1].toSql();
+            return SqlNode.of("(((", num, " >> ", shift, ") & " + Integer.MIN_VALUE + ") | ((", num, " << (32 - ",
+                shift, ") & " + Integer.MIN_VALUE + "))");
         }
     },
     TO_BINARY_STRING {
         @Override
-        public String transform(Operand... args) {
-            return "BIN(" + args[0].getAsString() + ")";
+        public SqlNode transform(Operand... args) {
+            return SqlNode.call("BIN", args[0].toSql());
         }
     },
     TO_HEX_STRING {
         @Override
-        public String transform(Operand... args) {
-            return "HEX(" + args[0].getAsString() + ")";
+        public SqlNode transform(Operand... args) {
+            return SqlNode.call("HEX", args[0].toSql());
         }
     },
     TO_OCTAL_STRING {
         @Override
-        public String transform(Operand... args) {
-            return "OCT(" + args[0].getAsString() + ")";
+        public SqlNode transform(Operand... args) {
+            return SqlNode.call("OCT", args[0].toSql());
         }
     },
     TO_STRING {
         @Override
-        public String transform(Operand... args) {
-            return "CAST(" + args[0].getAsString() + " AS VARCHAR)";
+        public SqlNode transform(Operand... args) {
+            return cast(args[0].toSql(), "VARCHAR");
         }
     },
     TO_UNSIGNED_STRING {
         // FIXME
         @Override
-        public String transform(Operand... args) {
+        public SqlNode transform(Operand... args) {
             var highestBit = getHighestBit(getNumericType(args));
-            return "CAST(" + NumericStaticTransformer.toUnsigned(args[0].getAsString(), highestBit) + " AS VARCHAR)";
+            return cast(NumericStaticTransformer.toUnsigned(args[0].toSql(), highestBit), "VARCHAR");
         }
     };
 
-    private static String toUnsigned(String s, byte highestBit) {
+    private static SqlNode cast(SqlNode value, String type) {
+        return SqlNode.of("CAST(", value, " AS " + type + ")");
+    }
+
+    private static SqlNode toUnsigned(SqlNode value, byte highestBit) {
         var maxValue = (long) Math.pow(2, highestBit) - 1;
         // not sure if this is the correct way to parse unsigned int, but bitwise it's the same
-        return "CASE WHEN %s < 0 THEN (ABS(CAST(%s AS NUMERIC) + %d + 1)) ELSE %s END".formatted(s, s, maxValue, s);
+        return SqlNode.of("CASE WHEN ", value, " < 0 THEN (ABS(", cast(value, "NUMERIC"), " + " + maxValue + " + 1)) ELSE ", value, " END");
     }
 
     private static String getNumericType(Operand... args) {
-        return args[args.length - 1].getAsString().toUpperCase();
+        return SqlNode.textOf(args[args.length - 1].toSql()).toUpperCase();
     }
 
     private static byte getHighestBit(String numericType) {
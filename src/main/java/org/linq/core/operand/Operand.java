@@ -4,6 +4,7 @@ import java.lang.reflect.code.Op;
 import java.lang.reflect.code.Value;
 import java.lang.reflect.code.op.CoreOp;
 import java.util.Map;
+import org.linq.core.sql.SqlNode;
 import org.linq.core.util.Ops;
 
 public interface Operand {
@@ -13,6 +14,6 @@ public interface Operand {
             : TransformNode.of(op, capturedValues);
     }
 
-    String getAsString();
+    SqlNode toSql();
 
 }
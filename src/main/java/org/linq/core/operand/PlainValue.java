@@ -1,5 +1,7 @@
 package org.linq.core.operand;
 
+import org.linq.core.sql.SqlNode;
+
 interface PlainValue {
-    String getValueAsString();
+    SqlNode toSql();
 }
@@ -5,6 +5,8 @@ import java.lang.reflect.code.op.CoreOp;
 import java.lang.reflect.code.type.ClassType;
 import java.util.Map;
 import java.util.Objects;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Dependencies;
 
 abstract class StaticTransformNode implements Operand {
 
@@ -33,14 +35,17 @@ abstract class StaticTransformNode implements Operand {
                     || classType.toClassName().equals(Byte.class.getName())) {
                     yield ShortByteStaticTransformNode.newShortByteTransformNode(invokeOp, capturedValues);
                 }
-                yield EvaluableStaticTransformNode.newEvaluableStaticTransformNode(invokeOp, capturedValues);
+                if (Dependencies.of(invokeOp, capturedValues).isEvaluable()) {
+                    yield EvaluableStaticTransformNode.newEvaluableStaticTransformNode(invokeOp, capturedValues);
+                }
+                throw new IllegalArgumentException("Unsupported static method on a column: " + invokeOp.invokeDescriptor());
             }
             default -> throw new IllegalArgumentException("Unsupported field type");
         };
     }
 
     @Override
-    public String getAsString() {
-        return transformer != null ? transformer.transform() : Objects.requireNonNull(value).getValueAsString();
+    public SqlNode toSql() {
+        return transformer != null ? transformer.transform() : Objects.requireNonNull(value).toSql();
     }
 }
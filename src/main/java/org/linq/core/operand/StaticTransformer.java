@@ -1,5 +1,7 @@
 package org.linq.core.operand;
 
+import org.linq.core.sql.SqlNode;
+
 public interface StaticTransformer {
-    String transform(Operand... args);
+    SqlNode transform(Operand... args);
 }
@@ -1,10 +1,12 @@
 package org.linq.core.operand;
 
+import org.linq.core.sql.SqlNode;
+
 public record StaticTransformerWithArgs(
     StaticTransformer transformer,
     Operand[] args
 ) {
-    public String transform() {
+    public SqlNode transform() {
         return transformer.transform(args);
     }
 }
\ No newline at end of file
@@ -1,16 +1,13 @@
 package org.linq.core.operand;
 
+import org.linq.core.sql.SqlNode;
+
 class StringLiteralValue extends LiteralValue<String> {
 
     public StringLiteralValue(String value) {
         super(value);
     }
 
-    @Override
-    public String getValueAsString() {
-        return "'" + value + "'";
-    }
-
     public static StringLiteralValue ofRaw(String value) {
         return new RawStringLiteralValue(value);
     }
@@ -22,8 +19,8 @@ class StringLiteralValue extends LiteralValue<String> {
         }
 
         @Override
-        public String getValueAsString() {
-            return value;
+        public SqlNode toSql() {
+            return SqlNode.text(value);
         }
     }
 }
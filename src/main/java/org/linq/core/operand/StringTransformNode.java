@@ -3,12 +3,13 @@ package org.linq.core.operand;
 import java.lang.reflect.code.Op;
 import java.lang.reflect.code.Value;
 import java.lang.reflect.code.op.CoreOp;
+import java.util.ArrayList;
+import java.util.Locale;
 import java.util.Map;
-import org.linq.core.exceptions.UncapturedValueException;
+import org.linq.core.sql.SqlNode;
 import org.linq.core.util.Extracts;
 import org.linq.core.util.Operands;
 import org.linq.core.util.Ops;
-import org.linq.core.util.Values;
 
 class StringTransformNode extends TransformNode {
 
@@ -40,162 +41,214 @@ class StringTransformNode extends TransformNode {
     private enum StringTransformer implements Transformer {
         TO_UPPER_CASE {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "UPPER(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("UPPER", field);
             }
         },
         TO_LOWER_CASE {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "LOWER(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("LOWER", field);
             }
         },
         TRIM {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "RTRIM(LTRIM(" + fieldName + "))";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("RTRIM", SqlNode.call("LTRIM", field));
             }
         },
         LENGTH {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "LENGTH(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("LENGTH", field);
             }
         },
         INDENT {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var indent = args[0].getAsString();
+            public SqlNode transform(SqlNode field, Operand... args) {
+                var indent = args[0].toSql();
                 // TODO handle negative indent
-                return "RPAD(" + fieldName + ", (" + (indent + " + " + fieldName.length()) + "), ' ')";
+                return SqlNode.call(
+                    "RPAD",
+                    field,
+                    SqlNode.parenthesized(SqlNode.binary(indent, "+", SqlNode.call("LENGTH", field))),
+                    SqlNode.text("' '")
+                );
             }
         },
         INTERN {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return fieldName;
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return field;
             }
         },
         REPEAT {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var count = args[0].getAsString();
-                return "RPAD('', " + count + ", " + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                var count = args[0].toSql();
+                return SqlNode.call("RPAD", SqlNode.text("''"), count, field);
             }
         },
         REPLACE {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var oldString = args[0].getAsString();
-                var newString = args[1].getAsString();
-                return "REPLACE(" + fieldName + ", '" + oldString + "', '" + newString + "')";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                var oldString = args[0].toSql();
+                var newString = args[1].toSql();
+                return SqlNode.call("REPLACE", field, oldString, newString);
             }
         },
         REPLACE_ALL {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var regex = args[0].getAsString();
-                var replacement = args[1].getAsString();
-                return "REGEXP_REPLACE(" + fieldName + ", '" + regex + "', '" + replacement + "')";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                var regex = args[0].toSql();
+                var replacement = args[1].toSql();
+                return SqlNode.call("REGEXP_REPLACE", field, regex, replacement);
             }
         },
         REPLACE_FIRST {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var regex = args[0].getAsString();
-                var replacement = args[1].getAsString();
-                return "REGEXP_REPLACE(" + fieldName + ", '" + regex + "', '" + replacement + "', 1)";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                var regex = args[0].toSql();
+                var replacement = args[1].toSql();
+                return SqlNode.call("REGEXP_REPLACE", field, regex, replacement, SqlNode.text("1"));
             }
         },
         SUBSTRING {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var start = args[0].getAsString();
-                var end = args.length > 1 ? args[1].getAsString() : String.valueOf(Integer.MAX_VALUE);
-                return "SUBSTR(" + fieldName + ", " + (start) + " + 1, (" +  (end + " - " + start) + "))";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                var start = args[0].toSql();
+                var end = args.length > 1 ? args[1].toSql() : SqlNode.text(String.valueOf(Integer.MAX_VALUE));
+                return SqlNode.call(
+                    "SUBSTR",
+                    field,
+                    SqlNode.binary(start, "+", SqlNode.text("1")),
+                    SqlNode.parenthesized(SqlNode.binary(end, "-", start))
+                );
             }
         },
         CONCAT {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "CONCAT(" + fieldName + ", " + args[0].getAsString() + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("CONCAT", field, args[0].toSql());
             }
         },
         RESOLVE_CONSTANT_DESC {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return fieldName;
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return field;
             }
         },
         STRIP {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "LTRIM(RTRIM(" + fieldName + "))";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("LTRIM", SqlNode.call("RTRIM", field));
             }
         },
         STRIP_LEADING {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "LTRIM(" + fieldName + ")";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("LTRIM", field);
             }
         },
         STRIP_INDENT {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "SUBSTR(" + fieldName + ", n)";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.call("SUBSTR", field, SqlNode.text("n"));
             }
         },
         CHAR_AT {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var index = args[0].getAsString();
-                return "SUBSTR(" + fieldName + ", " + index + ", 1)";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                var index = args[0].toSql();
+                return SqlNode.call("SUBSTR", field, index, SqlNode.text("1"));
             }
         },
         EQUALS {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return fieldName + " = " + args[0].getAsString();
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.binary(field, "=", args[0].toSql());
+            }
+        },
+        EQUALS_IGNORE_CASE {
+            @Override
+            public SqlNode transform(SqlNode field, Operand... args) {
+                // lower case on both sides, so an index on lower(column) can be used
+                var value = args[0].toSql();
+                if (value instanceof SqlNode.Parameter(String string)) {
+                    return SqlNode.binary(SqlNode.call("LOWER", field), "=", SqlNode.parameter(string.toLowerCase(Locale.ROOT)));
+                }
+                return SqlNode.binary(SqlNode.call("LOWER", field), "=", SqlNode.call("LOWER", value));
             }
         },
         CONTAINS {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var value = "CONCAT('%', " + args[0].getAsString() + ", '%')";
-                return fieldName + " LIKE " + value;
+            public SqlNode transform(SqlNode field, Operand... args) {
+                var value = args[0].toSql();
+                if (value instanceof SqlNode.Parameter(String string)) {
+                    return SqlNode.binary(field, "LIKE", SqlNode.parameter("%" + escapeLike(string) + "%"));
+                }
+                return SqlNode.binary(field, "LIKE", SqlNode.call("CONCAT", SqlNode.text("'%'"), value, SqlNode.text("'%'")));
             }
         },
         STARTS_WITH {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var value = "CONCAT(" + args[0].getAsString() + ", '%')";
-                return fieldName + " LIKE " + value;
+            public SqlNode transform(SqlNode field, Operand... args) {
+                // a constant pattern is inlined, so the planner can turn its prefix into an index range,
+                // captured patterns stay bound, so the statement text and its plan are reused for every value
+                var value = args[0].toSql();
+                if (value instanceof SqlNode.Parameter(String string)) {
+                    return SqlNode.binary(field, "LIKE", bound(escapeLike(string) + "%", isConstant(args[0])));
+                }
+                return SqlNode.binary(field, "LIKE", SqlNode.call("CONCAT", value, SqlNode.text("'%'")));
             }
         },
         ENDS_WITH {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var value = "CONCAT('%', " + args[0].getAsString() + ")";
-                return fieldName + " LIKE " + value;
+            public SqlNode transform(SqlNode field, Operand... args) {
+                var value = args[0].toSql();
+                if (value instanceof SqlNode.Parameter(String string)) {
+                    return SqlNode.binary(field, "LIKE", SqlNode.parameter("%" + escapeLike(string)));
+                }
+                return SqlNode.binary(field, "LIKE", SqlNode.call("CONCAT", SqlNode.text("'%'"), value));
             }
         },
         MATCHES {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                var value = args[0].getAsString().replaceAll("(?<!\\\\)\\.\\*", "%");
-                return fieldName + " SIMILAR TO " + value;
+            public SqlNode transform(SqlNode field, Operand... args) {
+                // String.matches requires the whole value to match, so the bound pattern is anchored
+                var regex = args[0].toSql();
+                if (!(regex instanceof SqlNode.Parameter(String string))) {
+                    var pattern = SqlNode.call("CONCAT", SqlNode.text("'^(?:'"), regex, SqlNode.text("')$'"));
+                    return SqlNode.binary(field, "~", pattern);
+                }
+                var match = SqlNode.binary(field, "~", SqlNode.parameter("^(?:" + string + ")$"));
+                var prefix = literalPrefix(string);
+                if (prefix.isEmpty()) {
+                    return match;
+                }
+                // every match starts with the prefix, so matches are looked up in the range of the prefix first,
+                // bounds are inlined only for a constant regex, the same way as patterns of STARTS_WITH
+                var constant = isConstant(args[0]);
+                var terms = new ArrayList<SqlNode>(3);
+                terms.add(SqlNode.binary(field, "~>=~", bound(prefix, constant)));
+                var upperBound = successor(prefix);
+                if (upperBound != null) {
+                    terms.add(SqlNode.binary(field, "~<~", bound(upperBound, constant)));
+                }
+                terms.add(match);
+                return SqlNode.parenthesized(SqlNode.join(" AND ", terms));
             }
         },
         EMPTY {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return fieldName + " = ''";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.binary(field, "=", SqlNode.text("''"));
             }
         },
         BLANK {
             @Override
-            public String transform(String fieldName, Operand... args) {
-                return "LTRIM(" + fieldName + ") = ''";
+            public SqlNode transform(SqlNode field, Operand... args) {
+                return SqlNode.binary(SqlNode.call("LTRIM", field), "=", SqlNode.text("''"));
             }
         };
 
@@ -219,6 +272,7 @@ class StringTransformNode extends TransformNode {
                 case "stripIndent" -> STRIP_INDENT;
                 case "charAt" -> CHAR_AT;
                 case "equals" -> EQUALS;
+                case "equalsIgnoreCase" -> EQUALS_IGNORE_CASE;
                 case "contains" -> CONTAINS;
                 case "startsWith" -> STARTS_WITH;
                 case "endsWith" -> ENDS_WITH;
@@ -230,4 +284,72 @@ class StringTransformNode extends TransformNode {
         }
     }
 
+    /**
+     * Escapes wildcards of LIKE patterns with the default escape character.
+     */
+    private static String escapeLike(String value) {
+        var escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static SqlNode literal(String value) {
+        return SqlNode.text("'" + value.replace("'", "''") + "'");
+    }
+
+    /**
+     * Returns the value inlined as a literal if it is a compile-time constant, or bound as a parameter otherwise,
+     * so distinct captured values don't produce distinct statements.
+     */
+    private static SqlNode bound(String value, boolean constant) {
+        return constant ? literal(value) : SqlNode.parameter(value);
+    }
+
+    private static boolean isConstant(Operand operand) {
+        return operand instanceof TransformNode node && node.isConstant();
+    }
+
+    /**
+     * Returns the literal text every match of the regex starts with, or an empty string if it can't be determined.
+     */
+    private static String literalPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+        var prefix = new StringBuilder();
+        for (int i = 0; i < regex.length(); i++) {
+            var c = regex.charAt(i);
+            if ("\\^$.[]{}()*+?".indexOf(c) >= 0) {
+                // the last character is optional if it is quantified
+                if ((c == '*' || c == '?' || c == '{') && !prefix.isEmpty()) {
+                    prefix.setLength(prefix.length() - 1);
+                }
+                break;
+            }
+            prefix.append(c);
+        }
+        if (!prefix.isEmpty() && Character.isHighSurrogate(prefix.charAt(prefix.length() - 1))) {
+            prefix.setLength(prefix.length() - 1);
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * Returns the smallest string greater than all strings starting with the prefix in code point order,
+     * or null if there is none.
+     */
+    private static String successor(String prefix) {
+        var last = prefix.codePointBefore(prefix.length());
+        var next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+        if (next > Character.MAX_CODE_POINT) {
+            return null;
+        }
+        return prefix.substring(0, prefix.length() - Character.charCount(last)) + Character.toString(next);
+    }
 }
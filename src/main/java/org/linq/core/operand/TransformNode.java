@@ -7,6 +7,8 @@ import java.lang.reflect.code.type.ClassType;
 import java.lang.reflect.code.type.PrimitiveType;
 import java.util.Map;
 import java.util.Objects;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Dependencies;
 import org.linq.core.util.Extracts;
 import org.linq.core.util.Ops;
 
@@ -56,16 +58,24 @@ abstract class TransformNode implements Operand {
     private static TransformNode fallback(Op op, Map<Value, Object> capturedValues) {
         if (Ops.isColumnAccessor(op, capturedValues)) {
             return new TransformNode(new ColumnValue(Extracts.accessorToFieldName(op))) {};
-        } else {
+        } else if (Dependencies.of(op, capturedValues).isEvaluable()) {
             return EvaluableTransformNode.newEvaluableTransformNode(op, capturedValues);
         }
+        throw new IllegalArgumentException("Unsupported operation on a column: " + op.opName());
+    }
+
+    /**
+     * Tells whether the operand is a compile-time constant, whose value is the same for every invocation of the lambda.
+     */
+    boolean isConstant() {
+        return plainVal instanceof LiteralValue<?>;
     }
 
     @Override
-    public String getAsString() {
+    public SqlNode toSql() {
         return prevOperand != null ?
-            Objects.requireNonNull(transform).transform(prevOperand.getAsString()) :
-            Objects.requireNonNull(plainVal).getValueAsString();
+            Objects.requireNonNull(transform).transform(prevOperand.toSql()) :
+            Objects.requireNonNull(plainVal).toSql();
     }
 
 }
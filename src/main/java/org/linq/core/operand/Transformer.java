@@ -1,5 +1,7 @@
 package org.linq.core.operand;
 
+import org.linq.core.sql.SqlNode;
+
 interface Transformer {
-    String transform(String fieldName, Operand... args);
+    SqlNode transform(SqlNode field, Operand... args);
 }
@@ -1,10 +1,12 @@
 package org.linq.core.operand;
 
+import org.linq.core.sql.SqlNode;
+
 record TransformerWithArgs(
     Transformer transformer,
     Operand... args
 ) {
-    public String transform(String fieldName) {
-        return transformer.transform(fieldName, args);
+    public SqlNode transform(SqlNode field) {
+        return transformer.transform(field, args);
     }
 }
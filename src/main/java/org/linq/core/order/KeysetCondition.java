@@ -0,0 +1,61 @@
+package org.linq.core.order;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.linq.core.condition.Condition;
+import org.linq.core.sql.SqlNode;
+
+/**
+ * Range predicate selecting rows that follow the given key values in sort order.
+ * Keys sharing one direction are compared as a row value, which the planner can match against a composite index.
+ */
+public final class KeysetCondition implements Condition {
+
+    private final List<SortKey> keys;
+
+    private final List<Object> values;
+
+    private KeysetCondition(List<SortKey> keys, List<Object> values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Creates a condition selecting rows after the given row.
+     * @param keys sort keys of the query
+     * @param row the last row of the previous page
+     */
+    public static KeysetCondition after(List<SortKey> keys, Object row) {
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("Keyset pagination requires sort keys");
+        }
+        return new KeysetCondition(List.copyOf(keys), keys.stream().map(key -> key.keyOf(row)).toList());
+    }
+
+    @Override
+    public SqlNode toSql() {
+        var descending = keys.getFirst().descending();
+        if (keys.stream().allMatch(key -> key.descending() == descending)) {
+            return SqlNode.parenthesized(SqlNode.binary(
+                SqlNode.parenthesized(SqlNode.join(", ", keys.stream().map(SortKey::expression).toList())),
+                descending ? "<" : ">",
+                SqlNode.parenthesized(SqlNode.join(", ", values.stream().map(SqlNode::parameter).toList()))
+            ));
+        }
+
+        var alternatives = new ArrayList<SqlNode>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            var terms = new ArrayList<SqlNode>(i + 1);
+            for (int j = 0; j < i; j++) {
+                terms.add(SqlNode.binary(keys.get(j).expression(), "=", SqlNode.parameter(values.get(j))));
+            }
+            terms.add(SqlNode.binary(
+                keys.get(i).expression(),
+                keys.get(i).descending() ? "<" : ">",
+                SqlNode.parameter(values.get(i))
+            ));
+            alternatives.add(SqlNode.parenthesized(SqlNode.join(" AND ", terms)));
+        }
+        return SqlNode.parenthesized(SqlNode.join(" OR ", alternatives));
+    }
+}
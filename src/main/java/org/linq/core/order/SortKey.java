@@ -0,0 +1,106 @@
+package org.linq.core.order;
+
+import java.lang.reflect.code.Op;
+import java.lang.reflect.code.Value;
+import java.lang.reflect.code.op.CoreOp;
+import java.util.Map;
+import java.util.function.Function;
+import org.linq.core.function.QuotableComparator;
+import org.linq.core.function.QuotableFunction;
+import org.linq.core.operand.Operand;
+import org.linq.core.query.QueryPart;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Captures;
+import org.linq.core.util.Dependencies;
+import org.linq.core.util.Ops;
+
+/**
+ * Single ORDER BY key translated from a quoted key extractor or comparator.
+ */
+public final class SortKey implements QueryPart {
+
+    private final Operand operand;
+
+    private final boolean descending;
+
+    private final Map<Value, Object> capturedValues;
+
+    private final Function<Object, ?> keyExtractor;
+
+    private SortKey(Operand operand, boolean descending, Map<Value, Object> capturedValues, Function<Object, ?> keyExtractor) {
+        this.operand = operand;
+        this.descending = descending;
+        this.capturedValues = capturedValues;
+        this.keyExtractor = keyExtractor;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SortKey of(QuotableFunction<?, ?> keyExtractor, boolean descending) {
+        var quoted = keyExtractor.quoted();
+        var lambdaOp = (CoreOp.LambdaOp) quoted.op();
+        var key = ((Op.Result) lambdaOp.body().blocks().getFirst().ops().getLast().operands().getFirst()).op();
+        return new SortKey(
+            Dependencies.with(lambdaOp, quoted.capturedValues(), () -> Operand.of(key, quoted.capturedValues())),
+            descending,
+            quoted.capturedValues(),
+            (Function<Object, ?>) keyExtractor
+        );
+    }
+
+    /**
+     * Translates a comparator of form {@code (a, b) -> a.key().compareTo(b.key())}
+     * or {@code (a, b) -> Long.compare(a.key(), b.key())}. Swapped operands sort in descending order.
+     * @throws IllegalArgumentException if the comparator is not of a supported form
+     */
+    public static SortKey of(QuotableComparator<?> comparator) {
+        var quoted = comparator.quoted();
+        var lambdaOp = (CoreOp.LambdaOp) quoted.op();
+        var result = ((Op.Result) lambdaOp.body().blocks().getFirst().ops().getLast().operands().getFirst()).op();
+        if (!(result instanceof CoreOp.InvokeOp invokeOp)
+            || !invokeOp.invokeDescriptor().name().startsWith("compare")
+            || invokeOp.operands().size() != 2) {
+            throw new IllegalArgumentException("Comparator must compare keys of both arguments: " + result);
+        }
+        var first = ((Op.Result) invokeOp.operands().getFirst()).op();
+        var second = ((Op.Result) invokeOp.operands().getLast()).op();
+        var parameters = lambdaOp.body().entryBlock().parameters();
+        var descending = isAccessOf(second, parameters.getFirst()) && isAccessOf(first, parameters.getLast());
+        if (!descending && !(isAccessOf(first, parameters.getFirst()) && isAccessOf(second, parameters.getLast()))) {
+            throw new IllegalArgumentException("Comparator must compare keys of both arguments: " + result);
+        }
+        var operand = Dependencies.with(lambdaOp, quoted.capturedValues(), () -> Operand.of(first, quoted.capturedValues()));
+        return new SortKey(operand, descending, quoted.capturedValues(), null);
+    }
+
+    private static boolean isAccessOf(Op op, Value parameter) {
+        var root = Ops.rootOp(op);
+        return !root.operands().isEmpty()
+            && root.operands().getFirst() instanceof Op.Result result
+            && result.op() instanceof CoreOp.VarAccessOp varAccessOp
+            && varAccessOp.varOp().operands().getFirst() == parameter;
+    }
+
+    public SqlNode expression() {
+        return Captures.with(capturedValues, operand::toSql);
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+
+    /**
+     * Evaluates the key of the given row, used to continue keyset pagination after that row.
+     * @throws IllegalStateException if the key was translated from a comparator
+     */
+    public Object keyOf(Object row) {
+        if (keyExtractor == null) {
+            throw new IllegalStateException("Key of a comparator can't be evaluated, use sortedBy for keyset pagination");
+        }
+        return keyExtractor.apply(row);
+    }
+
+    @Override
+    public SqlNode toSql() {
+        return SqlNode.of(expression(), descending ? " DESC" : " ASC");
+    }
+}
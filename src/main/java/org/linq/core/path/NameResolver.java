@@ -1,7 +1,16 @@
 package org.linq.core.path;
 
+import java.lang.reflect.RecordComponent;
+
 public interface NameResolver {
     String tableName(Class<?> clazz);
 
     String columnName(String fieldName);
+
+    /**
+     * Returns the column of a record component, named after the component by default.
+     */
+    default String columnName(RecordComponent component) {
+        return columnName(component.getName());
+    }
 }
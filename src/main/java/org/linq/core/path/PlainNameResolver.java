@@ -1,16 +1,21 @@
 package org.linq.core.path;
 
+import java.util.regex.Pattern;
+
 public class PlainNameResolver implements NameResolver {
 
+    private static final Pattern acronymBoundary = Pattern.compile("([A-Z]+)([A-Z][a-z])");
+
+    private static final Pattern wordBoundary = Pattern.compile("([a-z])([A-Z])");
+
     @Override
     public String tableName(Class<?> clazz) {
         return toSnakeCase(clazz.getSimpleName());
     }
 
     private String toSnakeCase(String camelCase) {
-        return camelCase.replaceAll("([A-Z]+)([A-Z][a-z])", "$1_$2")
-            .replaceAll("([a-z])([A-Z])", "$1_$2")
-            .toLowerCase();
+        var separated = acronymBoundary.matcher(camelCase).replaceAll("$1_$2");
+        return wordBoundary.matcher(separated).replaceAll("$1_$2").toLowerCase();
     }
 
     @Override
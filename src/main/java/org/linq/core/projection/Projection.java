@@ -0,0 +1,183 @@
+package org.linq.core.projection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.code.Op;
+import java.lang.reflect.code.Value;
+import java.lang.reflect.code.op.CoreOp;
+import java.lang.reflect.code.op.ExtendedOp;
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.linq.core.condition.AbstractCondition;
+import org.linq.core.function.QuotableFunction;
+import org.linq.core.mapping.RowMapper;
+import org.linq.core.mapping.RowMapperFactory;
+import org.linq.core.operand.Operand;
+import org.linq.core.query.QueryPart;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Captures;
+import org.linq.core.util.Dependencies;
+import org.linq.core.util.Lookups;
+import org.linq.core.util.Types;
+
+/**
+ * Select list translated from a quoted function. A function returning a single value is projected into
+ * a single column, a function invoking a constructor is projected into a column per constructor argument.
+ * @param <R> the type of projected values
+ */
+public final class Projection<R> implements QueryPart, RowMapperFactory<R> {
+
+    private static final Map<Class<?>, String> PARAMETER_TYPES = Map.of(
+        Long.class, "BIGINT",
+        Integer.class, "INTEGER",
+        Short.class, "SMALLINT",
+        Byte.class, "SMALLINT",
+        Double.class, "DOUBLE PRECISION",
+        Float.class, "REAL",
+        Boolean.class, "BOOLEAN",
+        String.class, "TEXT",
+        BigDecimal.class, "NUMERIC"
+    );
+
+    /**
+     * Primitive numeric types in order of widening conversions between them.
+     */
+    private static final List<Class<?>> NUMERIC_TYPES = List.of(
+        byte.class, short.class, int.class, long.class, float.class, double.class
+    );
+
+    private final List<Operand> columns;
+
+    private final Map<Value, Object> capturedValues;
+
+    private final RowMapper<R> mapper;
+
+    private Projection(List<Operand> columns, Map<Value, Object> capturedValues, RowMapper<R> mapper) {
+        this.columns = columns;
+        this.capturedValues = capturedValues;
+        this.mapper = mapper;
+    }
+
+    public static <R> Projection<R> of(QuotableFunction<?, ? extends R> function) {
+        var quoted = function.quoted();
+        return of((CoreOp.LambdaOp) quoted.op(), quoted.capturedValues());
+    }
+
+    public static <R> Projection<R> of(CoreOp.LambdaOp lambdaOp, Map<Value, Object> capturedValues) {
+        return Dependencies.with(lambdaOp, capturedValues, () -> translate(lambdaOp, capturedValues));
+    }
+
+    private static <R> Projection<R> translate(CoreOp.LambdaOp lambdaOp, Map<Value, Object> capturedValues) {
+        var returned = ((Op.Result) lambdaOp.body().blocks().getFirst().ops().getLast().operands().getFirst()).op();
+        var result = unwrapWidening(returned);
+        if (result instanceof CoreOp.NewOp newOp) {
+            var columns = newOp.operands().stream()
+                .map(operand -> column(((Op.Result) operand).op(), capturedValues))
+                .toList();
+            var parameterTypes = newOp.constructorType().parameterTypes().stream()
+                .map(Types::classOf)
+                .toArray(Class<?>[]::new);
+            return new Projection<>(columns, capturedValues, constructorMapper(Types.classOf(newOp.resultType()), parameterTypes));
+        }
+        var type = Types.boxed(Types.classOf(result.resultType()));
+        return new Projection<>(List.of(column(result, capturedValues)), capturedValues, columnMapper(type));
+    }
+
+    /**
+     * Translates a projected value. Boolean expressions are selected as conditions, values computed on the client
+     * are selected as parameters cast to the type of the value, which the database can't infer from a bare parameter.
+     * @throws IllegalArgumentException if a value computed on the client has no matching sql type
+     */
+    private static Operand column(Op op, Map<Value, Object> capturedValues) {
+        op = unwrapWidening(op);
+        if (Dependencies.of(op, capturedValues).isEvaluable()) {
+            var sqlType = PARAMETER_TYPES.get(Types.boxed(Types.classOf(op.resultType())));
+            if (sqlType == null) {
+                throw new IllegalArgumentException(
+                    "Value of type " + op.resultType() + " can't be projected, only values of the row and basic types can"
+                );
+            }
+            var value = Operand.of(op, capturedValues);
+            return () -> SqlNode.of("CAST(", value.toSql(), " AS " + sqlType + ")");
+        }
+        return switch (op) {
+            case CoreOp.GeOp _, CoreOp.GtOp _, CoreOp.LeOp _, CoreOp.LtOp _, CoreOp.EqOp _, CoreOp.NeqOp _, CoreOp.NotOp _,
+                 ExtendedOp.JavaConditionalOp _ -> AbstractCondition.ofExpression(op, capturedValues)::toSql;
+            default -> Operand.of(op, capturedValues);
+        };
+    }
+
+    /**
+     * Skips widening primitive conversions, e.g. of an int field returned as long, which are left to the getter
+     * reading the column.
+     * @throws IllegalArgumentException if a value is narrowed, e.g. a double cast to long, as the database would
+     * round or reject out of range values where Java truncates or wraps them
+     */
+    private static Op unwrapWidening(Op op) {
+        while (op instanceof CoreOp.ConvOp convOp) {
+            var operand = ((Op.Result) convOp.operands().getFirst()).op();
+            var from = Types.classOf(operand.resultType());
+            var to = Types.classOf(convOp.resultType());
+            if (!isWidening(from, to)) {
+                throw new IllegalArgumentException(
+                    "Conversion of " + from.getName() + " to " + to.getName() + " can't be projected, only widening ones can"
+                );
+            }
+            op = operand;
+        }
+        return op;
+    }
+
+    private static boolean isWidening(Class<?> from, Class<?> to) {
+        if (from == char.class) {
+            return NUMERIC_TYPES.indexOf(to) >= NUMERIC_TYPES.indexOf(int.class);
+        }
+        var fromIndex = NUMERIC_TYPES.indexOf(from);
+        return fromIndex >= 0 && NUMERIC_TYPES.indexOf(to) >= fromIndex;
+    }
+
+    @Override
+    public SqlNode toSql() {
+        return Captures.with(capturedValues, () -> SqlNode.join(", ", columns.stream().map(Operand::toSql).toList()));
+    }
+
+    @Override
+    public RowMapper<R> bind(ResultSetMetaData metaData) {
+        return mapper;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> RowMapper<R> columnMapper(Class<?> type) {
+        return resultSet -> (R) resultSet.getObject(1, type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> RowMapper<R> constructorMapper(Class<?> type, Class<?>[] parameterTypes) {
+        MethodHandle constructor;
+        try {
+            constructor = Lookups.lookupFor(type)
+                .findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+                .asSpreader(Object[].class, parameterTypes.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Constructor of " + type.getName() + " is not accessible", e);
+        }
+        var columnTypes = Arrays.stream(parameterTypes).map(Types::boxed).toArray(Class<?>[]::new);
+        return resultSet -> {
+            var args = new Object[columnTypes.length];
+            for (int i = 0; i < columnTypes.length; i++) {
+                args[i] = resultSet.getObject(i + 1, columnTypes[i]);
+            }
+            try {
+                return (R) (Object) constructor.invokeExact(args);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+}
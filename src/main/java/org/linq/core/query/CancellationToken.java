@@ -0,0 +1,51 @@
+package org.linq.core.query;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Future;
+
+/**
+ * Propagates cancellation of an asynchronous query to the thread running it and to its statement.
+ */
+final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    private volatile Statement statement;
+
+    private volatile Future<?> execution;
+
+    void register(Future<?> execution) {
+        this.execution = execution;
+        if (cancelled) {
+            execution.cancel(true);
+        }
+    }
+
+    void register(Statement statement) throws SQLException {
+        this.statement = statement;
+        if (cancelled) {
+            statement.cancel();
+        }
+    }
+
+    void unregister() {
+        this.statement = null;
+    }
+
+    void cancel() {
+        cancelled = true;
+        var statement = this.statement;
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException _) {
+                // the statement has completed or its connection is gone
+            }
+        }
+        var execution = this.execution;
+        if (execution != null) {
+            execution.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.linq.core.query;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Open cursor of a query. Owns the statement and the connection, which are released once the cursor
+ * is exhausted or closed. The query is traced until then.
+ */
+final class Cursor implements AutoCloseable {
+
+    private final Connection connection;
+
+    private final Statement statement;
+
+    private final ResultSet resultSet;
+
+    private final QueryTrace trace;
+
+    private long rows;
+
+    private RuntimeException failure;
+
+    private boolean closed;
+
+    Cursor(Connection connection, Statement statement, ResultSet resultSet, QueryTrace trace) {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.trace = trace;
+    }
+
+    ResultSet resultSet() {
+        return resultSet;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Counts rows read from the cursor, reported once it is closed.
+     */
+    void read(long rows) {
+        this.rows += rows;
+    }
+
+    /**
+     * Closes the cursor after reading from it failed.
+     * @return the exception to throw
+     */
+    RuntimeException failed(SQLException e) {
+        failure = new RuntimeException(e);
+        close();
+        return failure;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (connection; statement; resultSet) {
+            // resources are closed in reverse order of declaration
+        } catch (SQLException e) {
+            failure = failure != null ? failure : new RuntimeException(e);
+            throw failure;
+        } finally {
+            trace.mapped(rows);
+            trace.finish(failure);
+        }
+    }
+}
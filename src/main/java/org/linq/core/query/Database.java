@@ -0,0 +1,184 @@
+package org.linq.core.query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import javax.sql.DataSource;
+import jdk.jfr.EventType;
+import org.linq.core.datasource.ConnectionPool;
+import org.linq.core.datasource.DriverManagerDataSource;
+
+/**
+ * Entry point holding the data source that streams run their queries against.
+ * Asynchronous queries run on virtual threads, at most {@code maxConcurrency} of them at a time.
+ */
+public class Database implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 32;
+
+    private static final EventType queryEventType = EventType.getEventType(QueryEvent.class);
+
+    private static final Map<DataSource, Database> shared = new ConcurrentHashMap<>();
+
+    private final DataSource dataSource;
+
+    private final boolean ownsDataSource;
+
+    private final Semaphore concurrency;
+
+    private final ExecutorService executor;
+
+    private volatile ResultCache resultCache;
+
+    private final List<QueryListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a database limiting concurrent asynchronous queries to the pool size if the data source
+     * is a {@link ConnectionPool}, or to {@link #DEFAULT_MAX_CONCURRENCY} otherwise.
+     */
+    public Database(DataSource dataSource) {
+        this(dataSource, dataSource instanceof ConnectionPool pool ? pool.maxSize() : DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public Database(DataSource dataSource, int maxConcurrency) {
+        this(dataSource, maxConcurrency, false);
+    }
+
+    private Database(DataSource dataSource, int maxConcurrency, boolean ownsDataSource) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        this.dataSource = dataSource;
+        this.ownsDataSource = ownsDataSource;
+        this.concurrency = new Semaphore(maxConcurrency, true);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Returns the database shared by every caller passing the same data source, so streams created from a bare
+     * data source share one concurrency limit, result cache and executor. The shared database is created with
+     * {@link #Database(DataSource)} on first use and is dropped from the registry once it is closed.
+     */
+    public static Database of(DataSource dataSource) {
+        return shared.computeIfAbsent(dataSource, Database::new);
+    }
+
+    /**
+     * Creates a database backed by the built-in {@link ConnectionPool}, which is closed along with the database.
+     */
+    public static Database pooled(String url, String username, String password) {
+        var pool = new ConnectionPool(new DriverManagerDataSource(url, username, password));
+        return new Database(pool, pool.maxSize(), true);
+    }
+
+    public <T> DbStream<T> stream(Class<T> clazz) {
+        return new DbStream<>(clazz, this);
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Sets the cache used by streams that opted in with {@link DbStream#cached()}.
+     */
+    public Database resultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+        return this;
+    }
+
+    public Optional<ResultCache> resultCache() {
+        return Optional.ofNullable(resultCache);
+    }
+
+    /**
+     * Registers a listener notified of metrics of every query run against this database.
+     */
+    public Database addListener(QueryListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    public Database removeListener(QueryListener listener) {
+        listeners.remove(listener);
+        return this;
+    }
+
+    /**
+     * Tells whether queries are measured, i.e. whether there are listeners or the query event is recorded.
+     */
+    boolean instrumented() {
+        return !listeners.isEmpty() || queryEventType.isEnabled();
+    }
+
+    QueryTrace trace(String operation, String table, long translation) {
+        return instrumented() ? new QueryTrace(listeners, operation, table, translation) : QueryTrace.DISABLED;
+    }
+
+    /**
+     * Invalidates cached results reading from the table, called after every write through the library.
+     */
+    void invalidate(String table) {
+        var resultCache = this.resultCache;
+        if (resultCache != null) {
+            resultCache.invalidate(table);
+        }
+    }
+
+    /**
+     * Runs the task on a virtual thread once a concurrency permit is available.
+     * Cancelling the returned future interrupts the thread and cancels the running statement.
+     */
+    <R> CompletableFuture<R> submit(AsyncTask<R> task) {
+        var token = new CancellationToken();
+        var future = new CompletableFuture<R>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                var cancelled = super.cancel(mayInterruptIfRunning);
+                token.cancel();
+                return cancelled;
+            }
+        };
+        token.register(executor.submit(() -> {
+            try {
+                concurrency.acquire();
+            } catch (InterruptedException _) {
+                future.cancel(true);
+                return;
+            }
+            try {
+                future.complete(task.execute(token));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                concurrency.release();
+            }
+        }));
+        return future;
+    }
+
+    /**
+     * Stops accepting asynchronous queries and closes the data source if it was created by this database,
+     * i.e. by {@link #pooled}. Data sources passed by the caller are left open for the caller to close.
+     * A shared database is dropped from the registry of {@link #of(DataSource)}.
+     */
+    @Override
+    public void close() throws Exception {
+        shared.remove(dataSource, this);
+        executor.shutdown();
+        if (ownsDataSource && dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @FunctionalInterface
+    interface AsyncTask<R> {
+        R execute(CancellationToken token) throws Exception;
+    }
+}
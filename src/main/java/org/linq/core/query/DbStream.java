@@ -1,41 +1,919 @@
 package org.linq.core.query;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
 import java.lang.reflect.code.op.CoreOp;
-import java.sql.DriverManager;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
-import org.apache.commons.dbutils.QueryRunner;
-import org.apache.commons.dbutils.handlers.BeanListHandler;
+import java.util.stream.StreamSupport;
+import javax.sql.DataSource;
+import org.linq.core.columnar.ColumnBatch;
+import org.linq.core.columnar.ColumnReader;
 import org.linq.core.condition.Condition;
+import org.linq.core.copy.EntityCopy;
+import org.linq.core.entity.EntityMetadata;
+import org.linq.core.function.QuotableComparator;
+import org.linq.core.function.QuotableConsumer;
 import org.linq.core.function.QuotableFunction;
 import org.linq.core.function.QuotablePredicate;
+import org.linq.core.function.QuotableToDoubleFunction;
+import org.linq.core.function.QuotableToIntFunction;
+import org.linq.core.function.QuotableToLongFunction;
+import org.linq.core.mapping.EntityMapper;
+import org.linq.core.mapping.RowMapperFactory;
+import org.linq.core.order.KeysetCondition;
+import org.linq.core.order.SortKey;
+import org.linq.core.projection.Projection;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Types;
+import org.linq.core.write.Assignments;
+import org.linq.core.write.EntityWriter;
 
 public class DbStream<T> {
 
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final String TOTAL_COUNT_COLUMN = "linq_total_count";
+
+    private static final QueryPart COUNT = () -> SqlNode.text("COUNT(*)");
+
     private final QueryBuilder<T> queryBuilder;
 
     private final Class<T> clazz;
 
+    private final Database database;
+
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private boolean cached;
+
+    private int partitions = 1;
+
+    private Projection<?> partitionKey;
+
+    private long translationNanos;
+
     public DbStream(Class<T> clazz) {
+        this(clazz, DefaultDatabase.instance);
+    }
+
+    /**
+     * Creates a stream running against the database shared by all streams of the data source.
+     * @see Database#of(DataSource)
+     */
+    public DbStream(Class<T> clazz, DataSource dataSource) {
+        this(clazz, Database.of(dataSource));
+    }
+
+    public DbStream(Class<T> clazz, Database database) {
         this.queryBuilder = new QueryBuilder<>(clazz);
         this.clazz = clazz;
+        this.database = database;
     }
 
     public DbStream<T> filter(QuotablePredicate<? super T> predicate) {
-        queryBuilder.addCondition(Condition.of((CoreOp.LambdaOp) predicate.quoted().op(), predicate.quoted().capturedValues()));
+        queryBuilder.addCondition(translate(() -> Condition.of(predicate)));
+        return this;
+    }
+
+    public DbStream<T> limit(long maxSize) {
+        queryBuilder.limit(maxSize);
+        return this;
+    }
+
+    public DbStream<T> skip(long n) {
+        queryBuilder.skip(n);
+        return this;
+    }
+
+    /**
+     * Orders rows by the comparator, which must compare a key of both arguments,
+     * e.g. {@code (a, b) -> a.name().compareTo(b.name())}. Subsequent calls add secondary keys.
+     */
+    public DbStream<T> sorted(QuotableComparator<? super T> comparator) {
+        queryBuilder.addSortKey(translate(() -> SortKey.of(comparator)));
+        return this;
+    }
+
+    /**
+     * Orders rows by the key in ascending order. Subsequent calls add secondary keys.
+     */
+    public DbStream<T> sortedBy(QuotableFunction<? super T, ? extends Comparable<?>> keyExtractor) {
+        queryBuilder.addSortKey(translate(() -> SortKey.of(keyExtractor, false)));
+        return this;
+    }
+
+    /**
+     * Orders rows by the key in descending order. Subsequent calls add secondary keys.
+     */
+    public DbStream<T> sortedByDescending(QuotableFunction<? super T, ? extends Comparable<?>> keyExtractor) {
+        queryBuilder.addSortKey(translate(() -> SortKey.of(keyExtractor, true)));
+        return this;
+    }
+
+    /**
+     * Selects rows following the given row in the current sort order. Unlike {@link #skip(long)},
+     * the database seeks straight to the row through an index on the sort keys instead of scanning skipped rows.
+     * Must be called after sort keys are specified with {@link #sortedBy} or {@link #sortedByDescending}.
+     * @param lastRow the last row of the previous page
+     */
+    public DbStream<T> after(T lastRow) {
+        queryBuilder.addCondition(KeysetCondition.after(queryBuilder.sortKeys(), lastRow));
+        return this;
+    }
+
+    /**
+     * Sets the number of rows fetched from the cursor per round trip by {@link #stream()}.
+     */
+    public DbStream<T> fetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Makes {@link #stream()} scan rows in the given number of partitions, each one through a cursor of its own
+     * connection, and return a parallel stream splitting along the partitions.
+     * Rows are partitioned by ranges of the identifier, or by its hash if the identifier is not integral.
+     * All partitions read the same snapshot of the database, so the database must be able to hand out
+     * as many connections at once. Rows are not ordered across partitions, and the stream must not be limited or skipped.
+     */
+    public DbStream<T> parallel(int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Number of partitions must be positive");
+        }
+        this.partitions = partitions;
+        this.partitionKey = null;
+        return this;
+    }
+
+    /**
+     * Same as {@link #parallel(int)}, but partitions rows by ranges of the given integral key.
+     */
+    public DbStream<T> parallel(int partitions, QuotableFunction<? super T, ? extends Number> key) {
+        parallel(partitions);
+        this.partitionKey = translate(() -> Projection.of(key));
+        return this;
+    }
+
+    /**
+     * Serves results of this stream from the result cache of the database, if it has one.
+     * Results are cached per rendered sql and bound values, and are invalidated by writes to the table.
+     */
+    public DbStream<T> cached() {
+        this.cached = true;
+        return this;
+    }
+
+    /**
+     * Sets the number of statements sent to the database per round trip by batched writes.
+     */
+    public DbStream<T> batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
         return this;
     }
 
+    /**
+     * Returns a lazy stream of values of the function, which is translated into the select list of the query.
+     * Only projected columns are fetched, entities are never hydrated.
+     */
     public <R> Stream<R> map(QuotableFunction<? super T, ? extends R> function) {
-        return Stream.empty();
+        Projection<R> projection = translate(() -> Projection.of(function));
+        if (queryBuilder.selectsNothing()) {
+            return Stream.empty();
+        }
+        var trace = trace("map");
+        return cursor(trace, trace.built(queryBuilder.build(projection)), ReaderFactory.rows(projection));
+    }
+
+    /**
+     * Returns a lazy stream of values of the function, which is translated into the select list of the query.
+     * Values are read with {@link ResultSet#getLong(int)} straight into the stream, so they are never boxed,
+     * NULL values are read as zero.
+     */
+    public LongStream mapToLong(QuotableToLongFunction<? super T> function) {
+        var quoted = function.quoted();
+        Projection<?> projection = translate(() -> Projection.of((CoreOp.LambdaOp) quoted.op(), quoted.capturedValues()));
+        if (queryBuilder.selectsNothing()) {
+            return LongStream.empty();
+        }
+        var trace = trace("mapToLong");
+        var cursor = open(trace, trace.built(queryBuilder.build(projection)));
+        return StreamSupport.longStream(PrimitiveSpliterators.longs(cursor), false).onClose(cursor::close);
+    }
+
+    /**
+     * Same as {@link #mapToLong(QuotableToLongFunction)}, reading values with {@link ResultSet#getInt(int)}.
+     */
+    public IntStream mapToInt(QuotableToIntFunction<? super T> function) {
+        var quoted = function.quoted();
+        Projection<?> projection = translate(() -> Projection.of((CoreOp.LambdaOp) quoted.op(), quoted.capturedValues()));
+        if (queryBuilder.selectsNothing()) {
+            return IntStream.empty();
+        }
+        var trace = trace("mapToInt");
+        var cursor = open(trace, trace.built(queryBuilder.build(projection)));
+        return StreamSupport.intStream(PrimitiveSpliterators.ints(cursor), false).onClose(cursor::close);
+    }
+
+    /**
+     * Same as {@link #mapToLong(QuotableToLongFunction)}, reading values with {@link ResultSet#getDouble(int)}.
+     */
+    public DoubleStream mapToDouble(QuotableToDoubleFunction<? super T> function) {
+        var quoted = function.quoted();
+        Projection<?> projection = translate(() -> Projection.of((CoreOp.LambdaOp) quoted.op(), quoted.capturedValues()));
+        if (queryBuilder.selectsNothing()) {
+            return DoubleStream.empty();
+        }
+        var trace = trace("mapToDouble");
+        var cursor = open(trace, trace.built(queryBuilder.build(projection)));
+        return StreamSupport.doubleStream(PrimitiveSpliterators.doubles(cursor), false).onClose(cursor::close);
+    }
+
+    /**
+     * Returns a lazy stream of batches holding values of the functions column by column, which are translated into
+     * the select list of the query. Each batch holds up to {@link #fetchSize(int)} rows read straight into
+     * primitive arrays, so numeric values are never boxed. Columns are allocated once per stream and refilled by every
+     * batch, so a batch is only valid until the next one is pulled.
+     * The stream holds a connection until it is exhausted or closed.
+     * @see ColumnReader
+     */
+    @SafeVarargs
+    public final Stream<ColumnBatch> toColumns(QuotableFunction<? super T, ?>... columns) {
+        return toColumns(null, columns);
+    }
+
+    /**
+     * Same as {@link #toColumns(QuotableFunction[])}, but allocates numeric columns off-heap in the arena,
+     * once per stream rather than per batch. Batches can only be read until the arena is closed.
+     */
+    @SafeVarargs
+    public final Stream<ColumnBatch> toColumns(Arena arena, QuotableFunction<? super T, ?>... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("At least one column must be selected");
+        }
+        var projections = new ArrayList<Projection<?>>(columns.length);
+        for (var column : columns) {
+            projections.add(translate(() -> Projection.of(column)));
+        }
+        if (queryBuilder.selectsNothing()) {
+            return Stream.empty();
+        }
+        QueryPart selectList = () -> SqlNode.join(", ", projections.stream().map(Projection::toSql).toList());
+        ReaderFactory<ColumnBatch> readerFactory = metaData -> {
+            var reader = ColumnReader.of(metaData, fetchSize, arena);
+            return new ResultSetSpliterator.Reader<>() {
+                @Override
+                public ColumnBatch read(ResultSet resultSet) throws SQLException {
+                    return reader.read(resultSet);
+                }
+
+                @Override
+                public long rows(ColumnBatch batch) {
+                    return batch.rows();
+                }
+            };
+        };
+        var trace = trace("toColumns");
+        return cursor(trace, trace.built(queryBuilder.build(selectList)), readerFactory);
+    }
+
+    /**
+     * Renders the query selecting rows of this stream without executing it.
+     */
+    public Query toQuery() {
+        return queryBuilder.build();
     }
 
     public List<T> toList() {
-        try (var connection = DriverManager.getConnection("jdbc:postgresql://localhost:5432/linq", "postgres", "123")) {
-            var run = new QueryRunner();
-            return run.query(connection, queryBuilder.build(), new BeanListHandler<>(clazz));
-        } catch (Exception e) {
+        if (queryBuilder.selectsNothing()) {
+            return new ArrayList<>();
+        }
+        return execute("toList", queryBuilder::build, this::mapAll);
+    }
+
+    /**
+     * Runs {@link #toList()} asynchronously on a virtual thread of the database.
+     * Cancelling the returned future cancels the running statement.
+     */
+    public CompletableFuture<List<T>> toListAsync() {
+        if (queryBuilder.selectsNothing()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        var trace = trace("toListAsync");
+        var query = trace.built(queryBuilder.build());
+        return database.submit(token -> execute("toList", trace, query, this::mapAll, token));
+    }
+
+    /**
+     * Returns the rows selected by limit and offset together with the total number of matching rows,
+     * computed by a window function in the same round trip.
+     * Only if the page is empty and rows were skipped, the total is counted by a separate query.
+     */
+    public Page<T> page() {
+        if (queryBuilder.matchesNothing()) {
+            return new Page<>(new ArrayList<>(), 0);
+        }
+        var page = execute("page", () -> queryBuilder.build(() -> SqlNode.text("*, COUNT(*) OVER() AS " + TOTAL_COUNT_COLUMN)), resultSet -> {
+            var mapper = EntityMapper.of(clazz).bind(resultSet.getMetaData());
+            var content = new ArrayList<T>();
+            var total = 0L;
+            while (resultSet.next()) {
+                total = resultSet.getLong(TOTAL_COUNT_COLUMN);
+                content.add(mapper.map(resultSet));
+            }
+            return new Page<>(content, total);
+        });
+        if (page.content().isEmpty() && queryBuilder.offset() > 0) {
+            var total = execute("page", queryBuilder::buildCount, resultSet -> resultSet.next() ? resultSet.getLong(1) : 0L);
+            return new Page<>(page.content(), total);
+        }
+        return page;
+    }
+
+    public long count() {
+        if (queryBuilder.selectsNothing()) {
+            return 0;
+        }
+        return execute("count", () -> queryBuilder.buildAggregate(COUNT), DbStream::readCount);
+    }
+
+    /**
+     * Runs {@link #count()} asynchronously on a virtual thread of the database.
+     * Cancelling the returned future cancels the running statement.
+     */
+    public CompletableFuture<Long> countAsync() {
+        if (queryBuilder.selectsNothing()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        var trace = trace("countAsync");
+        var query = trace.built(queryBuilder.buildAggregate(COUNT));
+        return database.submit(token -> execute("count", trace, query, DbStream::readCount, token));
+    }
+
+    public boolean anyMatch(QuotablePredicate<? super T> predicate) {
+        var builder = queryBuilder.copy();
+        builder.addCondition(translate(() -> Condition.of(predicate)));
+        return exists("anyMatch", builder);
+    }
+
+    public boolean allMatch(QuotablePredicate<? super T> predicate) {
+        var builder = queryBuilder.copy();
+        builder.addCondition(translate(() -> Condition.not(Condition.of(predicate))));
+        return !exists("allMatch", builder);
+    }
+
+    public boolean noneMatch(QuotablePredicate<? super T> predicate) {
+        return !anyMatch(predicate);
+    }
+
+    public Optional<T> findFirst() {
+        var builder = queryBuilder.copy();
+        builder.limit(1);
+        if (builder.selectsNothing()) {
+            return Optional.empty();
+        }
+        return execute("findFirst", builder::build, resultSet -> resultSet.next()
+            ? Optional.of(EntityMapper.of(clazz).bind(resultSet.getMetaData()).map(resultSet))
+            : Optional.empty());
+    }
+
+    /**
+     * Returns the least value of the integral selector, computed by the database. Selectors of floating-point
+     * or decimal values go to {@link #minDouble(QuotableToDoubleFunction)}, so they are never truncated.
+     */
+    public OptionalLong min(QuotableToLongFunction<? super T> selector) {
+        return aggregateLong("MIN", selector);
+    }
+
+    /**
+     * Same as {@link #min(QuotableToLongFunction)}, returning the greatest value.
+     */
+    public OptionalLong max(QuotableToLongFunction<? super T> selector) {
+        return aggregateLong("MAX", selector);
+    }
+
+    /**
+     * Same as {@link #min(QuotableToLongFunction)}, returning the sum of values, or zero if there are none.
+     */
+    public long sum(QuotableToLongFunction<? super T> selector) {
+        return aggregateLong("SUM", selector).orElse(0);
+    }
+
+    /**
+     * Returns the least value of the selector, computed by the database and read as double.
+     */
+    public OptionalDouble minDouble(QuotableToDoubleFunction<? super T> selector) {
+        return aggregateDouble("MIN", selector);
+    }
+
+    /**
+     * Same as {@link #minDouble(QuotableToDoubleFunction)}, returning the greatest value.
+     */
+    public OptionalDouble maxDouble(QuotableToDoubleFunction<? super T> selector) {
+        return aggregateDouble("MAX", selector);
+    }
+
+    /**
+     * Same as {@link #minDouble(QuotableToDoubleFunction)}, returning the sum of values, or zero if there are none.
+     */
+    public double sumDouble(QuotableToDoubleFunction<? super T> selector) {
+        return aggregateDouble("SUM", selector).orElse(0);
+    }
+
+    public OptionalDouble average(QuotableFunction<? super T, ? extends Number> selector) {
+        Projection<?> projection = translate(() -> Projection.of(selector));
+        if (queryBuilder.selectsNothing()) {
+            return OptionalDouble.empty();
+        }
+        return execute("average", () -> queryBuilder.buildAggregate(() -> SqlNode.call("AVG", projection.toSql())), resultSet -> {
+            resultSet.next();
+            var value = resultSet.getDouble(1);
+            return resultSet.wasNull() ? OptionalDouble.empty() : OptionalDouble.of(value);
+        });
+    }
+
+    /**
+     * Inserts the entities in batches within a single transaction.
+     * Ids declared generated with {@link org.linq.core.entity.Id#generated()} are assigned to the inserted entities,
+     * all other ids are inserted as set.
+     * @return number of inserted rows
+     */
+    public int insertAll(Collection<? extends T> entities) {
+        return write("insertAll", connection -> EntityWriter.of(clazz).insertAll(connection, entities, batchSize));
+    }
+
+    /**
+     * Updates rows matching ids of the entities in batches within a single transaction.
+     * @return number of updated rows
+     */
+    public int updateAll(Collection<? extends T> entities) {
+        return write("updateAll", connection -> EntityWriter.of(clazz).updateAll(connection, entities, batchSize));
+    }
+
+    /**
+     * Deletes rows matching ids of the entities in batches within a single transaction.
+     * @return number of deleted rows
+     */
+    public int deleteAll(Collection<? extends T> entities) {
+        return write("deleteAll", connection -> EntityWriter.of(clazz).deleteAll(connection, entities, batchSize));
+    }
+
+    /**
+     * Assigns properties of all rows of this stream in a single UPDATE statement, which is translated from the
+     * setters or field assignments of the consumer. Assigned values are computed by the database from the row
+     * before the update, e.g. {@code update(t -> t.setName(t.name().trim()))}.
+     * @return number of updated rows
+     * @throws IllegalStateException if rows are limited or skipped
+     */
+    public int update(QuotableConsumer<? super T> update) {
+        var assignments = translate(() -> Assignments.of(update));
+        if (queryBuilder.matchesNothing()) {
+            return 0;
+        }
+        var query = queryBuilder.buildUpdate(assignments);
+        return write("update", connection -> executeUpdate(connection, query));
+    }
+
+    /**
+     * Deletes all rows of this stream in a single DELETE statement.
+     * @return number of deleted rows
+     * @throws IllegalStateException if rows are limited or skipped
+     */
+    public int delete() {
+        if (queryBuilder.matchesNothing()) {
+            return 0;
+        }
+        var query = queryBuilder.buildDelete();
+        return write("delete", connection -> executeUpdate(connection, query));
+    }
+
+    /**
+     * Loads the entities through the COPY protocol, encoding them one at a time as they are pulled from the stream.
+     * @return number of loaded rows
+     */
+    public long copyIn(Stream<? extends T> entities) {
+        var trace = trace("copyIn");
+        try (var connection = database.dataSource().getConnection()) {
+            trace.acquired();
+            var rows = EntityCopy.of(clazz).copyIn(connection, entities);
+            trace.written(rows);
+            trace.finish(null);
+            return rows;
+        } catch (SQLException e) {
+            var failure = new RuntimeException(e);
+            trace.finish(failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            trace.finish(e);
+            throw e;
+        } finally {
+            database.invalidate(queryBuilder.tableName());
+        }
+    }
+
+    /**
+     * Exports rows selected by this stream as CSV through the COPY protocol.
+     * @return number of exported rows
+     */
+    public long copyOut(OutputStream out) {
+        if (queryBuilder.selectsNothing()) {
+            return 0;
+        }
+        var copy = EntityCopy.of(clazz);
+        var trace = trace("copyOut");
+        var query = trace.built(new Query(queryBuilder.buildInlined(() -> SqlNode.text(copy.columnList())), List.of()));
+        try (var connection = database.dataSource().getConnection()) {
+            trace.acquired();
+            var rows = copy.copyOut(connection, query.sql(), out);
+            trace.written(rows);
+            trace.finish(null);
+            return rows;
+        } catch (SQLException | IOException e) {
+            var failure = new RuntimeException(e);
+            trace.finish(failure);
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns a lazy stream of entities selected by this stream, exported through the COPY protocol.
+     * The stream holds a connection until it is exhausted or closed.
+     */
+    public Stream<T> copyOut() {
+        if (queryBuilder.selectsNothing()) {
+            return Stream.empty();
+        }
+        var copy = EntityCopy.of(clazz);
+        var query = queryBuilder.buildInlined(() -> SqlNode.text(copy.columnList()));
+        Connection connection = null;
+        try {
+            connection = database.dataSource().getConnection();
+            return copy.copyOut(connection, query);
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns a stream lazily pulling rows from a server-side cursor, {@link #fetchSize(int)} rows at a time.
+     * The stream holds a connection until it is exhausted or closed, so it should be used in try-with-resources.
+     */
+    public Stream<T> stream() {
+        if (queryBuilder.selectsNothing()) {
+            return Stream.empty();
+        }
+        if (partitions > 1) {
+            return partitioned(EntityMapper.of(clazz));
+        }
+        var trace = trace("stream");
+        return cursor(trace, trace.built(queryBuilder.build()), ReaderFactory.rows(EntityMapper.of(clazz)));
+    }
+
+    public void forEach(Consumer<? super T> action) {
+        try (var stream = stream()) {
+            stream.forEach(action);
+        }
+    }
+
+    private boolean exists(String operation, QueryBuilder<T> builder) {
+        if (builder.selectsNothing()) {
+            return false;
+        }
+        return execute(operation, builder::buildExists, resultSet -> resultSet.next() && resultSet.getBoolean(1));
+    }
+
+    private OptionalLong aggregateLong(String function, QuotableToLongFunction<? super T> selector) {
+        var quoted = selector.quoted();
+        Projection<?> projection = translate(() -> Projection.of((CoreOp.LambdaOp) quoted.op(), quoted.capturedValues()));
+        if (queryBuilder.selectsNothing()) {
+            return OptionalLong.empty();
+        }
+        var operation = function.toLowerCase(Locale.ROOT);
+        return execute(operation, () -> queryBuilder.buildAggregate(() -> SqlNode.call(function, projection.toSql())), resultSet -> {
+            resultSet.next();
+            var value = resultSet.getLong(1);
+            return resultSet.wasNull() ? OptionalLong.empty() : OptionalLong.of(value);
+        });
+    }
+
+    private OptionalDouble aggregateDouble(String function, QuotableToDoubleFunction<? super T> selector) {
+        var quoted = selector.quoted();
+        Projection<?> projection = translate(() -> Projection.of((CoreOp.LambdaOp) quoted.op(), quoted.capturedValues()));
+        if (queryBuilder.selectsNothing()) {
+            return OptionalDouble.empty();
+        }
+        var operation = function.toLowerCase(Locale.ROOT) + "Double";
+        return execute(operation, () -> queryBuilder.buildAggregate(() -> SqlNode.call(function, projection.toSql())), resultSet -> {
+            resultSet.next();
+            var value = resultSet.getDouble(1);
+            return resultSet.wasNull() ? OptionalDouble.empty() : OptionalDouble.of(value);
+        });
+    }
+
+    private List<T> mapAll(ResultSet resultSet) throws SQLException {
+        var mapper = EntityMapper.of(clazz).bind(resultSet.getMetaData());
+        var result = new ArrayList<T>();
+        while (resultSet.next()) {
+            result.add(mapper.map(resultSet));
+        }
+        return result;
+    }
+
+    private static long readCount(ResultSet resultSet) throws SQLException {
+        resultSet.next();
+        return resultSet.getLong(1);
+    }
+
+    /**
+     * Translates a lambda of the stream, measuring the time spent if queries are instrumented.
+     */
+    private <X> X translate(Supplier<X> translation) {
+        if (!database.instrumented()) {
+            return translation.get();
+        }
+        var start = System.nanoTime();
+        var translated = translation.get();
+        translationNanos += System.nanoTime() - start;
+        return translated;
+    }
+
+    private QueryTrace trace(String operation) {
+        return database.trace(operation, queryBuilder.tableName(), translationNanos);
+    }
+
+    private <R> R execute(String operation, Supplier<Query> query, ResultHandler<R> handler) {
+        var trace = trace(operation);
+        return execute(operation, trace, trace.built(query.get()), handler, null);
+    }
+
+    /**
+     * @param operation terminal operation reading the result, cached results are only shared by the same operation,
+     * as e.g. {@code min} and {@code minDouble} render the same query but return different types
+     */
+    private <R> R execute(String operation, QueryTrace trace, Query query, ResultHandler<R> handler, CancellationToken token) {
+        R result;
+        try {
+            var resultCache = cached ? database.resultCache().orElse(null) : null;
+            result = resultCache != null
+                ? resultCache.get(query, clazz, operation, queryBuilder.tableName(), () -> executeUncached(trace, query, handler, token))
+                : executeUncached(trace, query, handler, token);
+        } catch (RuntimeException e) {
+            trace.finish(e);
+            throw e;
+        }
+        trace.finish(null);
+        return result;
+    }
+
+    private <R> R executeUncached(QueryTrace trace, Query query, ResultHandler<R> handler, CancellationToken token) {
+        try (var connection = database.dataSource().getConnection()) {
+            trace.acquired();
+            try (var statement = connection.prepareStatement(query.sql())) {
+                query.bind(statement);
+                if (token != null) {
+                    token.register(statement);
+                }
+                try (var resultSet = statement.executeQuery()) {
+                    trace.executed();
+                    var result = handler.handle(resultSet);
+                    trace.mapped(ResultCache.rows(result));
+                    return result;
+                } finally {
+                    if (token != null) {
+                        token.unregister();
+                    }
+                }
+            }
+        } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
+
+    private static int executeUpdate(Connection connection, Query query) throws SQLException {
+        try (var statement = connection.prepareStatement(query.sql())) {
+            query.bind(statement);
+            return statement.executeUpdate();
+        }
+    }
+
+    private int write(String operation, Write write) {
+        var trace = trace(operation);
+        try (var connection = database.dataSource().getConnection()) {
+            trace.acquired();
+            connection.setAutoCommit(false);
+            try {
+                var count = write.execute(connection);
+                connection.commit();
+                trace.written(count);
+                trace.finish(null);
+                return count;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            var failure = new RuntimeException(e);
+            trace.finish(failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            trace.finish(e);
+            throw e;
+        } finally {
+            database.invalidate(queryBuilder.tableName());
+        }
+    }
+
+    private <R> Stream<R> cursor(QueryTrace trace, Query query, ReaderFactory<R> readerFactory) {
+        var spliterator = spliterator(open(trace, query), readerFactory);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    private Cursor open(QueryTrace trace, Query query) {
+        Connection connection = null;
+        try {
+            connection = database.dataSource().getConnection();
+            trace.acquired();
+            return openCursor(connection, trace, query);
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            var failure = new RuntimeException(e);
+            trace.finish(failure);
+            throw failure;
+        }
+    }
+
+    private Cursor openCursor(Connection connection, QueryTrace trace, Query query) throws SQLException {
+        // the driver only uses a cursor within a transaction
+        connection.setAutoCommit(false);
+        var statement = connection.prepareStatement(query.sql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        query.bind(statement);
+        var resultSet = statement.executeQuery();
+        trace.executed();
+        return new Cursor(connection, statement, resultSet, trace);
+    }
+
+    private static <R> ResultSetSpliterator<R> spliterator(Cursor cursor, ReaderFactory<R> readerFactory) {
+        try {
+            return new ResultSetSpliterator<>(cursor, readerFactory.bind(cursor.resultSet().getMetaData()));
+        } catch (SQLException e) {
+            throw cursor.failed(e);
+        }
+    }
+
+    /**
+     * Opens cursors of all partitions up front. The first connection exports its snapshot, which the others import
+     * before their first query, so the exporting transaction is still open while they do.
+     */
+    private <R> Stream<R> partitioned(RowMapperFactory<R> mapperFactory) {
+        if (queryBuilder.isLimited()) {
+            throw new IllegalStateException("Partitioned scans can't be limited or skipped");
+        }
+        var cursors = new ArrayList<ResultSetSpliterator<R>>(partitions);
+        Connection connection = null;
+        try {
+            connection = database.dataSource().getConnection();
+            connection.setAutoCommit(false);
+            String snapshot;
+            try (var statement = connection.createStatement()) {
+                statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                try (var resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+                    resultSet.next();
+                    snapshot = resultSet.getString(1);
+                }
+            }
+            var conditions = partitionConditions(connection);
+            for (var condition : conditions) {
+                if (connection == null) {
+                    connection = database.dataSource().getConnection();
+                    connection.setAutoCommit(false);
+                    try (var statement = connection.createStatement()) {
+                        statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                        statement.execute("SET TRANSACTION SNAPSHOT '" + snapshot.replace("'", "''") + "'");
+                    }
+                }
+                var builder = queryBuilder.copy();
+                builder.addCondition(condition);
+                var trace = trace("stream");
+                trace.acquired();
+                var cursor = openCursor(connection, trace, trace.built(builder.build()));
+                connection = null;
+                cursors.add(spliterator(cursor, ReaderFactory.rows(mapperFactory)));
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            for (var cursor : cursors) {
+                try {
+                    cursor.close();
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(e);
+        }
+        var spliterator = new PartitionedSpliterator<>(List.copyOf(cursors));
+        return StreamSupport.stream(spliterator, true).onClose(spliterator::close);
+    }
+
+    /**
+     * Returns the conditions of partitions. Bounds of key ranges are read within the exported snapshot.
+     */
+    private List<Condition> partitionConditions(Connection connection) throws SQLException {
+        SqlNode key;
+        if (partitionKey != null) {
+            key = partitionKey.toSql();
+        } else {
+            var id = EntityMetadata.of(clazz).id()
+                .orElseThrow(() -> new IllegalStateException(clazz.getName() + " has no identifier to partition by"));
+            key = SqlNode.column(id.field());
+            var type = Types.boxed(id.type());
+            if (type != Long.class && type != Integer.class && type != Short.class && type != Byte.class) {
+                return Partitions.hashed(key, partitions);
+            }
+        }
+        var bounds = queryBuilder.buildAggregate(() -> SqlNode.of(SqlNode.call("MIN", key), ", ", SqlNode.call("MAX", key)));
+        try (var statement = connection.prepareStatement(bounds.sql())) {
+            bounds.bind(statement);
+            try (var resultSet = statement.executeQuery()) {
+                resultSet.next();
+                var min = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    return List.of(() -> SqlNode.TRUE);
+                }
+                return Partitions.ranges(key, min, resultSet.getLong(2), partitions);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReaderFactory<R> {
+
+        ResultSetSpliterator.Reader<R> bind(ResultSetMetaData metaData) throws SQLException;
+
+        static <R> ReaderFactory<R> rows(RowMapperFactory<R> mapperFactory) {
+            return metaData -> ResultSetSpliterator.Reader.of(mapperFactory.bind(metaData));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResultHandler<R> {
+        R handle(ResultSet resultSet) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        int execute(Connection connection) throws SQLException;
+    }
+
+    private static final class DefaultDatabase {
+        private static final Database instance = Database.pooled("jdbc:postgresql://localhost:5432/linq", "postgres", "123");
+    }
 }
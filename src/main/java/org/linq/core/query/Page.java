@@ -0,0 +1,9 @@
+package org.linq.core.query;
+
+import java.util.List;
+
+/**
+ * Page of rows together with the number of rows matching the query regardless of limit and offset.
+ */
+public record Page<T>(List<T> content, long total) {
+}
@@ -0,0 +1,88 @@
+package org.linq.core.query;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Reads cursors of disjoint partitions of a query one after another. Splits hand out whole partitions,
+ * so every cursor is read by a single thread and rows of different partitions are mapped in parallel.
+ * Closing any split closes the cursors of all partitions.
+ */
+final class PartitionedSpliterator<T> implements Spliterator<T>, AutoCloseable {
+
+    private final List<ResultSetSpliterator<T>> partitions;
+
+    private int next;
+
+    private final int end;
+
+    PartitionedSpliterator(List<ResultSetSpliterator<T>> partitions) {
+        this(partitions, 0, partitions.size());
+    }
+
+    private PartitionedSpliterator(List<ResultSetSpliterator<T>> partitions, int next, int end) {
+        this.partitions = partitions;
+        this.next = next;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (next < end) {
+            if (partitions.get(next).tryAdvance(action)) {
+                return true;
+            }
+            next++;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        for (; next < end; next++) {
+            partitions.get(next).forEachRemaining(action);
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        var remaining = end - next;
+        if (remaining < 2) {
+            return null;
+        }
+        var middle = next + remaining / 2;
+        var prefix = new PartitionedSpliterator<>(partitions, next, middle);
+        next = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return next < end ? Long.MAX_VALUE : 0;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.NONNULL;
+    }
+
+    @Override
+    public void close() {
+        RuntimeException failure = null;
+        for (var partition : partitions) {
+            try {
+                partition.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.linq.core.query;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.linq.core.condition.Condition;
+import org.linq.core.sql.SqlNode;
+
+/**
+ * Conditions splitting rows of a query into disjoint partitions, which together cover all of its rows.
+ * Rows with a NULL key fall into the first partition.
+ */
+final class Partitions {
+
+    private Partitions() {
+    }
+
+    /**
+     * Splits the key range into consecutive ranges of about the same width.
+     * The first and the last range are open, so keys out of the given bounds are still covered.
+     * @param key integral key expression
+     * @param min the smallest key
+     * @param max the greatest key
+     * @param count maximal number of partitions, fewer are returned if the range has fewer keys
+     */
+    static List<Condition> ranges(SqlNode key, long min, long max, int count) {
+        var width = BigInteger.valueOf(max).subtract(BigInteger.valueOf(min)).add(BigInteger.ONE);
+        var partitions = width.min(BigInteger.valueOf(count)).intValue();
+        var bounds = new long[partitions];
+        for (int i = 1; i < partitions; i++) {
+            bounds[i] = width.multiply(BigInteger.valueOf(i))
+                .divide(BigInteger.valueOf(partitions))
+                .add(BigInteger.valueOf(min))
+                .longValueExact();
+        }
+        var conditions = new ArrayList<Condition>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            var lower = SqlNode.binary(key, ">=", SqlNode.parameter(bounds[i]));
+            var upper = i + 1 < partitions ? SqlNode.binary(key, "<", SqlNode.parameter(bounds[i + 1])) : null;
+            if (i == 0) {
+                conditions.add(withNulls(key, upper != null ? upper : SqlNode.TRUE));
+            } else if (upper == null) {
+                conditions.add(() -> SqlNode.parenthesized(lower));
+            } else {
+                conditions.add(() -> SqlNode.parenthesized(SqlNode.binary(lower, "AND", upper)));
+            }
+        }
+        return conditions;
+    }
+
+    /**
+     * Splits rows into buckets by the hash of the key, for keys that can't be split into ranges.
+     * @param key key expression of any type
+     * @param count number of partitions
+     */
+    static List<Condition> hashed(SqlNode key, int count) {
+        var bucket = SqlNode.call(
+            "MOD",
+            SqlNode.binary(SqlNode.call("hashtext", SqlNode.of("CAST(", key, " AS TEXT)")), "&", SqlNode.text("2147483647")),
+            SqlNode.text(String.valueOf(count))
+        );
+        var conditions = new ArrayList<Condition>(count);
+        for (int i = 0; i < count; i++) {
+            var inBucket = SqlNode.binary(bucket, "=", SqlNode.text(String.valueOf(i)));
+            conditions.add(i == 0 ? withNulls(key, inBucket) : () -> SqlNode.parenthesized(inBucket));
+        }
+        return conditions;
+    }
+
+    private static Condition withNulls(SqlNode key, SqlNode condition) {
+        return () -> SqlNode.parenthesized(SqlNode.binary(condition, "OR", SqlNode.of(key, " IS NULL")));
+    }
+}
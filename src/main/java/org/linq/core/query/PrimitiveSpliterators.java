@@ -0,0 +1,87 @@
+package org.linq.core.query;
+
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Spliterators pulling values of the first column from an open cursor with primitive getters, one row at a time,
+ * so no object is allocated per row. NULL values are read as zero.
+ * The cursor is closed once it is exhausted.
+ */
+final class PrimitiveSpliterators {
+
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.NONNULL;
+
+    private PrimitiveSpliterators() {
+    }
+
+    static Spliterator.OfLong longs(Cursor cursor) {
+        return new Spliterators.AbstractLongSpliterator(Long.MAX_VALUE, CHARACTERISTICS) {
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                try {
+                    if (!next(cursor)) {
+                        return false;
+                    }
+                    action.accept(cursor.resultSet().getLong(1));
+                    return true;
+                } catch (SQLException e) {
+                    throw cursor.failed(e);
+                }
+            }
+        };
+    }
+
+    static Spliterator.OfInt ints(Cursor cursor) {
+        return new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE, CHARACTERISTICS) {
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                try {
+                    if (!next(cursor)) {
+                        return false;
+                    }
+                    action.accept(cursor.resultSet().getInt(1));
+                    return true;
+                } catch (SQLException e) {
+                    throw cursor.failed(e);
+                }
+            }
+        };
+    }
+
+    static Spliterator.OfDouble doubles(Cursor cursor) {
+        return new Spliterators.AbstractDoubleSpliterator(Long.MAX_VALUE, CHARACTERISTICS) {
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                try {
+                    if (!next(cursor)) {
+                        return false;
+                    }
+                    action.accept(cursor.resultSet().getDouble(1));
+                    return true;
+                } catch (SQLException e) {
+                    throw cursor.failed(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Moves the cursor to the next row, closing it once there is none.
+     */
+    private static boolean next(Cursor cursor) throws SQLException {
+        if (cursor.isClosed()) {
+            return false;
+        }
+        if (!cursor.resultSet().next()) {
+            cursor.close();
+            return false;
+        }
+        cursor.read(1);
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package org.linq.core.query;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Rendered sql with positional placeholders and the parameters bound to them, in order.
+ */
+public record Query(String sql, List<QueryParameter> parameters) {
+
+    public void bind(PreparedStatement statement) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            parameters.get(i).bind(statement, i + 1);
+        }
+    }
+}
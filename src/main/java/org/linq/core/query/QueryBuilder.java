@@ -1,49 +1,235 @@
 package org.linq.core.query;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.SequencedCollection;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import org.linq.core.condition.Condition;
-import org.linq.core.path.NameResolver;
-import org.linq.core.path.PlainNameResolver;
+import org.linq.core.condition.PredicateOptimizer;
+import org.linq.core.entity.EntityMetadata;
+import org.linq.core.order.SortKey;
+import org.linq.core.sql.SqlNode;
 
 class QueryBuilder<T> {
 
-    private final NameResolver nameResolver;
+    private static final QueryPart ALL_COLUMNS = () -> SqlNode.text("*");
+
+    private static final SqlNode EMPTY = SqlNode.text("");
+
+    private final EntityMetadata<T> entity;
 
     private final SequencedCollection<Condition> conditions;
 
+    private final List<SortKey> sortKeys;
+
     private final Class<T> clazz;
 
+    private Long limit;
+
+    private SqlNode predicate;
+
+    private long offset;
+
     public QueryBuilder(Class<T> clazz) {
-        this.nameResolver = new PlainNameResolver();
+        this.entity = EntityMetadata.of(clazz);
         this.conditions = new LinkedHashSet<>();
+        this.sortKeys = new ArrayList<>();
         this.clazz = clazz;
     }
 
     public void addCondition(Condition condition) {
         conditions.add(condition);
+        predicate = null;
+    }
+
+    public void addSortKey(SortKey sortKey) {
+        sortKeys.add(sortKey);
+    }
+
+    public List<SortKey> sortKeys() {
+        return List.copyOf(sortKeys);
+    }
+
+    /**
+     * Limits the number of rows, composing with limits and offsets applied before.
+     */
+    public void limit(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        this.limit = this.limit == null ? limit : Math.min(this.limit, limit);
+    }
+
+    /**
+     * Skips rows, composing with limits and offsets applied before.
+     */
+    public void skip(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Skipped count must not be negative");
+        }
+        this.offset += count;
+        if (this.limit != null) {
+            this.limit = Math.max(0, this.limit - count);
+        }
+    }
+
+    public String tableName() {
+        return entity.table();
+    }
+
+    public long offset() {
+        return offset;
+    }
+
+    public boolean isLimited() {
+        return limit != null || offset > 0;
+    }
+
+    /**
+     * Returns whether the conditions are always false, so no row matches them.
+     */
+    public boolean matchesNothing() {
+        return predicate() == SqlNode.FALSE;
+    }
+
+    /**
+     * Returns whether the query can't select any row, either because no row matches its conditions
+     * or because it is limited to no rows, so it doesn't have to be sent to the database.
+     */
+    public boolean selectsNothing() {
+        return limit != null && limit == 0 || matchesNothing();
+    }
+
+    /**
+     * Returns an independent builder with the same conditions, order, limit and offset.
+     */
+    public QueryBuilder<T> copy() {
+        var copy = new QueryBuilder<>(clazz);
+        copy.conditions.addAll(conditions);
+        copy.sortKeys.addAll(sortKeys);
+        copy.limit = limit;
+        copy.offset = offset;
+        return copy;
     }
 
-    public String build() {
-        return "SELECT %s FROM %s %s".formatted("*", nameResolver.tableName(clazz), buildWhereClause());
+    public Query build() {
+        return build(ALL_COLUMNS);
     }
 
-    private String buildWhereClause() {
-        if (conditions.isEmpty()) {
-            return "";
+    /**
+     * Builds the query selecting the given select list instead of whole rows.
+     */
+    public Query build(QueryPart selectList) {
+        return SqlRenderer.render(select(selectList), entity);
+    }
+
+    /**
+     * Renders the query with values inlined as literals, for statements that can't take parameters.
+     */
+    public String buildInlined(QueryPart selectList) {
+        return SqlRenderer.renderInlined(select(selectList), entity);
+    }
+
+    /**
+     * Builds the query checking whether any row is selected. The database stops at the first matching row.
+     */
+    public Query buildExists() {
+        return SqlRenderer.render(SqlNode.of("SELECT EXISTS (", select(() -> SqlNode.text("1")), ")"), entity);
+    }
+
+    /**
+     * Builds the query computing the aggregate select list over selected rows.
+     * If rows are limited or skipped, the aggregate is computed over the selected page.
+     */
+    public Query buildAggregate(QueryPart aggregate) {
+        if (limit == null && offset == 0) {
+            return SqlRenderer.render(
+                SqlNode.of("SELECT ", aggregate.toSql(), " FROM ", tableName(), whereClause()),
+                entity
+            );
         }
+        return SqlRenderer.render(
+            SqlNode.of("SELECT ", aggregate.toSql(), " FROM (", select(ALL_COLUMNS), ") AS page"),
+            entity
+        );
+    }
 
-        return " WHERE " + conditions.stream().map(Condition::toSql)
-            .map(condition -> {
-                var matcher = Pattern.compile("!\\w+").matcher(condition);
-                while (matcher.find()) {
-                    var group = matcher.group();
-                    var fieldName = group.substring(1);
-                    condition = condition.replace(group, nameResolver.columnName(fieldName));
-                }
-                return condition;
-            }).collect(Collectors.joining(" AND "));
+    /**
+     * Builds the query counting rows matching the conditions, ignoring order, limit and offset.
+     */
+    public Query buildCount() {
+        return SqlRenderer.render(SqlNode.of("SELECT COUNT(*) FROM ", tableName(), whereClause()), entity);
+    }
+
+    /**
+     * Builds the statement assigning the SET list to rows matching the conditions, ignoring order.
+     * @throws IllegalStateException if rows are limited or skipped
+     */
+    public Query buildUpdate(QueryPart assignments) {
+        requireUnlimited();
+        return SqlRenderer.render(SqlNode.of("UPDATE ", tableName(), " SET ", assignments.toSql(), whereClause()), entity);
+    }
+
+    /**
+     * Builds the statement deleting rows matching the conditions, ignoring order.
+     * @throws IllegalStateException if rows are limited or skipped
+     */
+    public Query buildDelete() {
+        requireUnlimited();
+        return SqlRenderer.render(SqlNode.of("DELETE FROM ", tableName(), whereClause()), entity);
+    }
+
+    private void requireUnlimited() {
+        if (isLimited()) {
+            throw new IllegalStateException("Updates and deletes can't be limited or skipped");
+        }
+    }
+
+    private SqlNode select(QueryPart selectList) {
+        return SqlNode.of(
+            "SELECT ", selectList.toSql(),
+            " FROM ", tableName(),
+            whereClause(),
+            orderByClause(),
+            limitClause()
+        );
+    }
+
+    private SqlNode whereClause() {
+        var predicate = predicate();
+        return predicate == SqlNode.TRUE ? EMPTY : SqlNode.of(" WHERE ", predicate);
+    }
+
+    /**
+     * Returns the optimized conjunction of the conditions, rendered once for all queries built from them.
+     */
+    private SqlNode predicate() {
+        if (predicate == null) {
+            predicate = PredicateOptimizer.optimize(conditions.stream().map(Condition::toSql).toList());
+        }
+        return predicate;
+    }
+
+    private SqlNode orderByClause() {
+        if (sortKeys.isEmpty()) {
+            return EMPTY;
+        }
+        return SqlNode.of(" ORDER BY ", SqlNode.join(", ", sortKeys.stream().map(SortKey::toSql).toList()));
+    }
+
+    private SqlNode limitClause() {
+        if (limit == null && offset == 0) {
+            return EMPTY;
+        }
+        var clause = new ArrayList<SqlNode>(4);
+        if (limit != null) {
+            clause.add(SqlNode.text(" LIMIT "));
+            clause.add(SqlNode.parameter(limit));
+        }
+        if (offset > 0) {
+            clause.add(SqlNode.text(" OFFSET "));
+            clause.add(SqlNode.parameter(offset));
+        }
+        return SqlNode.join("", clause);
     }
 }
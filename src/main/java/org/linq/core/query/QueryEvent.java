@@ -0,0 +1,59 @@
+package org.linq.core.query;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event committed for every query, see {@link QueryMetrics} for the meaning of its fields.
+ * The call site is recorded as a field instead of a stack trace, which would mostly consist of library frames.
+ */
+@Name("org.linq.Query")
+@Label("Query")
+@Category("Linq")
+@Description("Query run by a stream")
+@StackTrace(false)
+final class QueryEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Table")
+    String table;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Call Site")
+    String callSite;
+
+    @Label("Translation")
+    @Timespan
+    long translation;
+
+    @Label("Build")
+    @Timespan
+    long build;
+
+    @Label("Connection Acquisition")
+    @Timespan
+    long acquisition;
+
+    @Label("Execution")
+    @Timespan
+    long execution;
+
+    @Label("Mapping")
+    @Timespan
+    long mapping;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,11 @@
+package org.linq.core.query;
+
+/**
+ * Receives metrics of every query a {@link Database} runs, registered with {@link Database#addListener}.
+ * Listeners are called synchronously on the thread that ran the query, after its resources are released,
+ * so they should be quick and must not throw.
+ */
+@FunctionalInterface
+public interface QueryListener {
+    void onQuery(QueryMetrics metrics);
+}
@@ -0,0 +1,36 @@
+package org.linq.core.query;
+
+import java.time.Duration;
+
+/**
+ * Timings and results of a single query.
+ * Stages that did not take place, e.g. execution of a query served from the result cache, take zero time.
+ * For lazily consumed streams, mapping lasts until the stream is closed and includes the time spent by the consumer.
+ * @param operation the stream method that ran the query, e.g. {@code toList}
+ * @param table table of the queried entity
+ * @param sql the sql template with parameter placeholders, null for batched writes and copy loads
+ * @param callSite the first stack frame outside the library that ran the query
+ * @param translation time spent translating lambdas of the stream into sql
+ * @param build time spent rendering the query
+ * @param acquisition time spent waiting for a connection, including waiting for an asynchronous query permit
+ * @param execution time spent executing the statement until the first rows were received
+ * @param mapping time spent reading and mapping the rows
+ * @param total time from the start of the query until its resources were released
+ * @param rows number of rows read, or written by writes
+ * @param failure the exception the query failed with, null if it succeeded
+ */
+public record QueryMetrics(
+    String operation,
+    String table,
+    String sql,
+    String callSite,
+    Duration translation,
+    Duration build,
+    Duration acquisition,
+    Duration execution,
+    Duration mapping,
+    Duration total,
+    long rows,
+    Throwable failure
+) {
+}
@@ -0,0 +1,34 @@
+package org.linq.core.query;
+
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public record QueryParameter(Object value, JDBCType type) {
+
+    public static QueryParameter of(Object value) {
+        return switch (value) {
+            case null -> new QueryParameter(null, JDBCType.NULL);
+            case String s -> new QueryParameter(s, JDBCType.VARCHAR);
+            case Character c -> new QueryParameter(c.toString(), JDBCType.CHAR);
+            case Integer i -> new QueryParameter(i, JDBCType.INTEGER);
+            case Long l -> new QueryParameter(l, JDBCType.BIGINT);
+            case Short s -> new QueryParameter(s, JDBCType.SMALLINT);
+            case Byte b -> new QueryParameter(b.shortValue(), JDBCType.SMALLINT);
+            case Double d -> new QueryParameter(d, JDBCType.DOUBLE);
+            case Float f -> new QueryParameter(f, JDBCType.REAL);
+            case Boolean b -> new QueryParameter(b, JDBCType.BOOLEAN);
+            case BigDecimal d -> new QueryParameter(d, JDBCType.NUMERIC);
+            default -> new QueryParameter(value, JDBCType.OTHER);
+        };
+    }
+
+    public void bind(PreparedStatement statement, int index) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, type.getVendorTypeNumber());
+        } else {
+            statement.setObject(index, value, type.getVendorTypeNumber());
+        }
+    }
+}
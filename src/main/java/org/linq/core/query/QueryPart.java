@@ -1,5 +1,7 @@
 package org.linq.core.query;
 
+import org.linq.core.sql.SqlNode;
+
 public interface QueryPart {
-    String toSql();
+    SqlNode toSql();
 }
@@ -0,0 +1,168 @@
+package org.linq.core.query;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Measures stages of a single query and reports them to listeners and Flight Recorder once the query finishes.
+ * Stages are measured as laps, each one ending where the next one starts.
+ * If neither listeners nor the event are enabled, the shared {@link #DISABLED} trace is used,
+ * which doesn't even read the clock.
+ */
+final class QueryTrace {
+
+    static final QueryTrace DISABLED = new QueryTrace();
+
+    private static final StackWalker stackWalker = StackWalker.getInstance();
+
+    private static final String LIBRARY_PACKAGE = QueryTrace.class.getPackageName() + ".";
+
+    private final boolean enabled;
+
+    private final List<QueryListener> listeners;
+
+    private final QueryEvent event;
+
+    private final String operation;
+
+    private final String table;
+
+    private final String callSite;
+
+    private final long translation;
+
+    private final long startedAt;
+
+    private long lapStartedAt;
+
+    private String sql;
+
+    private long build;
+
+    private long acquisition;
+
+    private long execution;
+
+    private long mapping;
+
+    private long rows;
+
+    private boolean finished;
+
+    private QueryTrace() {
+        this.enabled = false;
+        this.listeners = List.of();
+        this.event = null;
+        this.operation = null;
+        this.table = null;
+        this.callSite = null;
+        this.translation = 0;
+        this.startedAt = 0;
+    }
+
+    QueryTrace(List<QueryListener> listeners, String operation, String table, long translation) {
+        this.enabled = true;
+        this.listeners = listeners;
+        this.event = new QueryEvent();
+        this.operation = operation;
+        this.table = table;
+        this.translation = translation;
+        this.callSite = stackWalker.walk(frames -> frames
+            .filter(frame -> !frame.getClassName().startsWith(LIBRARY_PACKAGE))
+            .findFirst()
+            .map(frame -> frame.toStackTraceElement().toString())
+            .orElse(null));
+        event.begin();
+        this.startedAt = System.nanoTime();
+        this.lapStartedAt = startedAt;
+    }
+
+    Query built(Query query) {
+        if (enabled) {
+            sql = query.sql();
+            build += lap();
+        }
+        return query;
+    }
+
+    void acquired() {
+        if (enabled) {
+            acquisition += lap();
+        }
+    }
+
+    void executed() {
+        if (enabled) {
+            execution += lap();
+        }
+    }
+
+    void mapped(long rows) {
+        if (enabled) {
+            mapping += lap();
+            this.rows += rows;
+        }
+    }
+
+    /**
+     * Executed stage of a write, which has no separate mapping stage.
+     */
+    void written(long rows) {
+        if (enabled) {
+            execution += lap();
+            this.rows += rows;
+        }
+    }
+
+    /**
+     * Reports the query, unless it was already reported.
+     * @param failure the exception the query failed with, null if it succeeded
+     */
+    void finish(Throwable failure) {
+        if (!enabled || finished) {
+            return;
+        }
+        finished = true;
+        var total = System.nanoTime() - startedAt;
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.table = table;
+            event.sql = sql;
+            event.callSite = callSite;
+            event.translation = translation;
+            event.build = build;
+            event.acquisition = acquisition;
+            event.execution = execution;
+            event.mapping = mapping;
+            event.rows = rows;
+            event.failed = failure != null;
+            event.commit();
+        }
+        if (!listeners.isEmpty()) {
+            var metrics = new QueryMetrics(
+                operation,
+                table,
+                sql,
+                callSite,
+                Duration.ofNanos(translation),
+                Duration.ofNanos(build),
+                Duration.ofNanos(acquisition),
+                Duration.ofNanos(execution),
+                Duration.ofNanos(mapping),
+                Duration.ofNanos(total),
+                rows,
+                failure
+            );
+            for (var listener : listeners) {
+                listener.onQuery(metrics);
+            }
+        }
+    }
+
+    private long lap() {
+        var now = System.nanoTime();
+        var elapsed = now - lapStartedAt;
+        lapStartedAt = now;
+        return elapsed;
+    }
+}
@@ -0,0 +1,159 @@
+package org.linq.core.query;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cache of query results keyed by the rendered sql, its parameters, the entity type and the terminal operation.
+ * Entries are evicted in least recently used order once there are more than {@code maxEntries} of them
+ * or once they hold more than {@code maxRows} rows in total, and expire after {@code ttl}.
+ * Writes of an entity through the library invalidate all entries of its table.
+ * Cached results are shared between callers and must not be modified.
+ */
+public final class ResultCache {
+
+    private final int maxEntries;
+
+    private final long ttlNanos;
+
+    private final long maxRows;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, Long> tableVersions = new HashMap<>();
+
+    private long rows;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    public ResultCache(int maxEntries, Duration ttl, long maxRows) {
+        if (maxEntries <= 0 || maxRows <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Returns the cached result of the query or loads and caches it.
+     * A result loaded while its table was written to is returned, but not cached.
+     * @param query the query
+     * @param entityType type of the queried entities, distinguishes entities mapped from the same query
+     * @param operation terminal operation reading the result, distinguishes results of different types read from
+     * the same query, e.g. a list of {@code limit(1).toList()} and an optional of {@code findFirst()}
+     * @param table table the query reads from
+     * @param loader executes the query
+     */
+    @SuppressWarnings("unchecked")
+    <R> R get(Query query, Class<?> entityType, String operation, String table, Supplier<R> loader) {
+        var key = new Key(query, entityType, operation);
+        long version;
+        synchronized (this) {
+            var entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                hits++;
+                return (R) entry.value();
+            }
+            if (entry != null) {
+                remove(key);
+                evictions++;
+            }
+            misses++;
+            version = tableVersions.getOrDefault(table, 0L);
+        }
+
+        var value = loader.get();
+        var cached = switch (value) {
+            case List<?> list -> (R) List.copyOf(list);
+            case Page<?> page -> (R) new Page<>(List.copyOf(page.content()), page.total());
+            case null, default -> value;
+        };
+        var rowCount = rows(value);
+        synchronized (this) {
+            if (tableVersions.getOrDefault(table, 0L) == version && rowCount <= maxRows) {
+                var previous = entries.put(key, new Entry(table, cached, rowCount, System.nanoTime()));
+                rows += rowCount - (previous != null ? previous.rows() : 0);
+                evict();
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Removes all entries reading from the table.
+     */
+    public synchronized void invalidate(String table) {
+        tableVersions.merge(table, 1L, Long::sum);
+        var iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next().getValue();
+            if (entry.table().equals(table)) {
+                rows -= entry.rows();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        rows = 0;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, entries.size(), rows);
+    }
+
+    /**
+     * Returns the number of rows a query result consists of, scalar results count as a single row.
+     */
+    static int rows(Object result) {
+        return switch (result) {
+            case Collection<?> collection -> collection.size();
+            case Page<?> page -> page.content().size();
+            case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+            case null, default -> 1;
+        };
+    }
+
+    private void remove(Key key) {
+        var removed = entries.remove(key);
+        if (removed != null) {
+            rows -= removed.rows();
+        }
+    }
+
+    private void evict() {
+        var iterator = entries.values().iterator();
+        while ((entries.size() > maxEntries || rows > maxRows) && iterator.hasNext()) {
+            rows -= iterator.next().rows();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Snapshot of cache statistics. Expired entries count as evictions.
+     */
+    public record CacheStats(long hits, long misses, long evictions, int entries, long rows) {
+    }
+
+    private record Key(Query query, Class<?> entityType, String operation) {
+    }
+
+    private record Entry(String table, Object value, long rows, long loadedAt) {
+    }
+}
@@ -0,0 +1,75 @@
+package org.linq.core.query;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import org.linq.core.mapping.RowMapper;
+
+/**
+ * Pulls rows from an open cursor one at a time, or in chunks read by a {@link Reader}.
+ * The cursor is closed once it is exhausted or the spliterator is closed.
+ */
+class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+    private final Cursor cursor;
+
+    private final Reader<T> reader;
+
+    ResultSetSpliterator(Cursor cursor, Reader<T> reader) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.cursor = cursor;
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (cursor.isClosed()) {
+            return false;
+        }
+        try {
+            var element = reader.read(cursor.resultSet());
+            if (element == null) {
+                close();
+                return false;
+            }
+            cursor.read(reader.rows(element));
+            action.accept(element);
+            return true;
+        } catch (SQLException e) {
+            throw cursor.failed(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cursor.close();
+    }
+
+    /**
+     * Reads the next element from the cursor, moving it past all rows the element consists of.
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+
+        /**
+         * @return the next element, or null if the cursor is exhausted
+         */
+        T read(ResultSet resultSet) throws SQLException;
+
+        /**
+         * Returns the number of rows the element was read from.
+         */
+        default long rows(T element) {
+            return 1;
+        }
+
+        /**
+         * Returns a reader mapping one row at a time.
+         */
+        static <T> Reader<T> of(RowMapper<T> mapper) {
+            return resultSet -> resultSet.next() ? mapper.map(resultSet) : null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.linq.core.query;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.linq.core.entity.EntityMetadata;
+import org.linq.core.sql.SqlNode;
+
+/**
+ * Writes a sql tree in a single pass into one buffer, resolving columns of the queried entity as they are reached.
+ * Parameters are either collected in order of their placeholders or inlined as literals.
+ */
+final class SqlRenderer {
+
+    private final EntityMetadata<?> entity;
+
+    private final StringBuilder sql = new StringBuilder(256);
+
+    private final List<QueryParameter> parameters;
+
+    private SqlRenderer(EntityMetadata<?> entity, boolean inline) {
+        this.entity = entity;
+        this.parameters = inline ? null : new ArrayList<>();
+    }
+
+    /**
+     * Renders the tree with positional placeholders for bound values.
+     */
+    static Query render(SqlNode node, EntityMetadata<?> entity) {
+        var renderer = new SqlRenderer(entity, false);
+        renderer.write(node);
+        return new Query(renderer.sql.toString(), List.copyOf(renderer.parameters));
+    }
+
+    /**
+     * Renders the tree with bound values inlined as literals, for statements that can't take parameters.
+     */
+    static String renderInlined(SqlNode node, EntityMetadata<?> entity) {
+        var renderer = new SqlRenderer(entity, true);
+        renderer.write(node);
+        return renderer.sql.toString();
+    }
+
+    private void write(SqlNode node) {
+        switch (node) {
+            case SqlNode.Column(var field) -> sql.append(entity.columnName(field));
+            case SqlNode.Parameter(var value) -> {
+                if (parameters == null) {
+                    writeLiteral(value);
+                } else {
+                    parameters.add(QueryParameter.of(value));
+                    sql.append('?');
+                }
+            }
+            case SqlNode.Text(var text) -> sql.append(text);
+            case SqlNode.Call(var function, var args) -> {
+                sql.append(function).append('(');
+                writeAll(args, ", ");
+                sql.append(')');
+            }
+            case SqlNode.Binary(var left, var operator, var right) -> {
+                write(left);
+                sql.append(' ').append(operator).append(' ');
+                write(right);
+            }
+            case SqlNode.Parenthesized(var expression) -> {
+                sql.append('(');
+                write(expression);
+                sql.append(')');
+            }
+            case SqlNode.Not(var condition) -> {
+                sql.append("NOT (");
+                write(condition);
+                sql.append(')');
+            }
+            case SqlNode.Sequence(var nodes, var separator) -> writeAll(nodes, separator);
+        }
+    }
+
+    private void writeAll(List<SqlNode> nodes, String separator) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (i > 0) {
+                sql.append(separator);
+            }
+            write(nodes.get(i));
+        }
+    }
+
+    /**
+     * Writes the value as a literal. Non-finite floating point values are written as casts of their string form,
+     * values of other types than strings, numbers and booleans are rejected rather than written as unquoted text.
+     * @throws IllegalArgumentException if the value has no literal form
+     */
+    private void writeLiteral(Object value) {
+        switch (value) {
+            case null -> sql.append("NULL");
+            case String _, Character _ -> sql.append('\'').append(value.toString().replace("'", "''")).append('\'');
+            case Integer _, Long _, Short _, Byte _, BigInteger _ -> sql.append(value);
+            case BigDecimal decimal -> sql.append(decimal.toPlainString());
+            case Double _, Float _ -> {
+                var number = ((Number) value).doubleValue();
+                if (Double.isFinite(number)) {
+                    sql.append(value);
+                } else {
+                    sql.append("CAST('").append(number).append("' AS DOUBLE PRECISION)");
+                }
+            }
+            case Boolean bool -> sql.append(bool ? "TRUE" : "FALSE");
+            default -> throw new IllegalArgumentException(
+                "Value of " + value.getClass().getName() + " can't be inlined into a statement"
+            );
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.linq.core.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Node of a rendered sql expression. Conditions, operands and select lists produce trees of these nodes,
+ * which are written out by a single renderer. Columns are kept as field names until they are rendered,
+ * so they are resolved without rescanning the sql, and parameters keep their values in the order they appear.
+ */
+public sealed interface SqlNode {
+
+    SqlNode TRUE = new Text("TRUE");
+
+    SqlNode FALSE = new Text("FALSE");
+
+    /**
+     * Column of the queried entity, referenced by the name of its field.
+     */
+    record Column(String field) implements SqlNode {
+    }
+
+    /**
+     * Value bound as a statement parameter, or inlined as a literal where parameters can't be used.
+     */
+    record Parameter(Object value) implements SqlNode {
+    }
+
+    /**
+     * Sql text written as is, e.g. a keyword, an operator or a numeric constant known at translation time.
+     */
+    record Text(String sql) implements SqlNode {
+    }
+
+    /**
+     * Function call with comma separated arguments.
+     */
+    record Call(String function, List<SqlNode> args) implements SqlNode {
+    }
+
+    /**
+     * Binary operator applied to two operands, without parentheses.
+     */
+    record Binary(SqlNode left, String operator, SqlNode right) implements SqlNode {
+    }
+
+    /**
+     * Expression enclosed in parentheses.
+     */
+    record Parenthesized(SqlNode expression) implements SqlNode {
+    }
+
+    /**
+     * Negated condition, the condition is enclosed in parentheses.
+     */
+    record Not(SqlNode condition) implements SqlNode {
+    }
+
+    /**
+     * Nodes written one after another, optionally separated.
+     */
+    record Sequence(List<SqlNode> nodes, String separator) implements SqlNode {
+    }
+
+    static SqlNode column(String field) {
+        return new Column(field);
+    }
+
+    static SqlNode parameter(Object value) {
+        return new Parameter(value);
+    }
+
+    static SqlNode text(String sql) {
+        return new Text(sql);
+    }
+
+    static SqlNode call(String function, SqlNode... args) {
+        return new Call(function, List.of(args));
+    }
+
+    static SqlNode binary(SqlNode left, String operator, SqlNode right) {
+        return new Binary(left, operator, right);
+    }
+
+    static SqlNode parenthesized(SqlNode expression) {
+        return new Parenthesized(expression);
+    }
+
+    static SqlNode not(SqlNode condition) {
+        return new Not(condition);
+    }
+
+    static SqlNode join(String separator, List<? extends SqlNode> nodes) {
+        return new Sequence(List.copyOf(nodes), separator);
+    }
+
+    /**
+     * Concatenates the parts into a sequence. Strings are taken as sql text, other objects must be nodes.
+     * Used for templates that don't map onto a single call or operator, e.g. {@code CASE} expressions.
+     */
+    static SqlNode of(Object... parts) {
+        var nodes = new ArrayList<SqlNode>(parts.length);
+        for (var part : parts) {
+            nodes.add(switch (part) {
+                case SqlNode node -> node;
+                case String sql -> new Text(sql);
+                default -> throw new IllegalArgumentException("Not a sql part: " + part);
+            });
+        }
+        return new Sequence(nodes, "");
+    }
+
+    /**
+     * Returns the text of a node produced by {@link #text(String)}.
+     * @throws IllegalArgumentException if the node is not plain text
+     */
+    static String textOf(SqlNode node) {
+        if (node instanceof Text(var sql)) {
+            return sql;
+        }
+        throw new IllegalArgumentException("Expected sql text, got " + node);
+    }
+
+    /**
+     * Returns the value of a node produced by {@link #parameter(Object)}.
+     * @throws IllegalArgumentException if the node is not a bound value
+     */
+    static Object valueOf(SqlNode node) {
+        if (node instanceof Parameter(var value)) {
+            return value;
+        }
+        throw new IllegalArgumentException("Expected a client-side value, got " + node);
+    }
+}
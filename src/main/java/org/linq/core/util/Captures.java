@@ -0,0 +1,39 @@
+package org.linq.core.util;
+
+import java.lang.reflect.code.Value;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class Captures {
+
+    private static final ThreadLocal<Map<Value, Object>> bound = ThreadLocal.withInitial(Map::of);
+
+    private Captures() {
+    }
+
+    /**
+     * Returns the captured values bound to the current thread.
+     * @return captured values of the lambda currently being rendered, or an empty map if none is bound
+     */
+    public static Map<Value, Object> current() {
+        return bound.get();
+    }
+
+    /**
+     * Runs the action with the given captured values bound to the current thread.
+     * Previously bound values are restored after the action completes.
+     * @param capturedValues the captured values to bind
+     * @param action the action to run
+     * @return the result of the action
+     * @param <R> the type of the result
+     */
+    public static <R> R with(Map<Value, Object> capturedValues, Supplier<R> action) {
+        var previous = bound.get();
+        bound.set(capturedValues);
+        try {
+            return action.get();
+        } finally {
+            bound.set(previous);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.linq.core.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.code.Op;
+import java.lang.reflect.code.TypeElement;
+import java.lang.reflect.code.Value;
+import java.lang.reflect.code.op.CoreOp;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.linq.core.exceptions.UncapturedValueException;
+
+/**
+ * Client-side expression compiled into a tree of method handles, which takes the captured values
+ * of a lambda invocation and returns the value of the expression.
+ * Methods, fields and constructors are resolved once per descriptor and shared between compiled expressions.
+ * Every node of the tree keeps the exact types of its op, so the composed handle is invoked without boxing
+ * of intermediate values and can be inlined by the JIT.
+ */
+public final class CompiledValue {
+
+    private static final MethodType EVALUATOR_TYPE = MethodType.methodType(Object.class, Map.class);
+
+    private static final MethodHandle CAPTURED_VALUE;
+
+    private static final Map<String, MethodHandle> members = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            CAPTURED_VALUE = MethodHandles.lookup().findStatic(
+                Values.class,
+                "valueOf",
+                MethodType.methodType(Object.class, CoreOp.VarAccessOp.class, Map.class)
+            );
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandle evaluator;
+
+    private CompiledValue(MethodHandle evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Compiles the op and its operands.
+     * @param op one of constant, var access, field access, invoke and new ops
+     * @throws IllegalArgumentException if the op or any of its operands is not supported
+     */
+    public static CompiledValue of(Op op) {
+        return new CompiledValue(compile(op).asType(EVALUATOR_TYPE));
+    }
+
+    /**
+     * Evaluates the expression.
+     * @param capturedValues captured values of the lambda invocation
+     * @throws UncapturedValueException if the expression depends on a value that is not captured
+     */
+    public Object evaluate(Map<Value, Object> capturedValues) {
+        try {
+            return (Object) evaluator.invokeExact(capturedValues);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Compiles the op into a handle of type (Map)R, where R is the exact result type of the op.
+     */
+    private static MethodHandle compile(Op op) {
+        return switch (op) {
+            case CoreOp.ConstantOp constantOp -> {
+                var value = constantOp.value();
+                var type = value == null ? Object.class : typeOf(constantOp.resultType());
+                yield MethodHandles.dropArguments(MethodHandles.constant(type, value), 0, Map.class);
+            }
+            case CoreOp.VarAccessOp varAccessOp -> MethodHandles.insertArguments(CAPTURED_VALUE, 0, varAccessOp)
+                .asType(MethodType.methodType(typeOf(varAccessOp.resultType()), Map.class));
+            case CoreOp.FieldAccessOp fieldAccessOp -> combine(field(fieldAccessOp), operands(fieldAccessOp));
+            case CoreOp.InvokeOp invokeOp -> combine(method(invokeOp), operands(invokeOp));
+            case CoreOp.NewOp newOp -> combine(constructor(newOp), operands(newOp));
+            default -> throw new IllegalArgumentException("Unsupported op " + op);
+        };
+    }
+
+    private static List<MethodHandle> operands(Op op) {
+        return op.operands().stream()
+            .map(operand -> compile(((Op.Result) operand).op()))
+            .toList();
+    }
+
+    /**
+     * Feeds results of the operand handles to the target and merges their captured values parameters into one.
+     * @param target handle taking as many arguments as there are operands
+     * @param operands handles of type (Map)X
+     * @return handle of type (Map)R, where R is the return type of the target
+     */
+    private static MethodHandle combine(MethodHandle target, List<MethodHandle> operands) {
+        if (operands.isEmpty()) {
+            return MethodHandles.dropArguments(target, 0, Map.class);
+        }
+        var filters = new MethodHandle[operands.size()];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = operands.get(i).asType(MethodType.methodType(target.type().parameterType(i), Map.class));
+        }
+        var filtered = MethodHandles.filterArguments(target, 0, filters);
+        return MethodHandles.permuteArguments(
+            filtered,
+            MethodType.methodType(filtered.type().returnType(), Map.class),
+            new int[filters.length]
+        );
+    }
+
+    private static MethodHandle field(CoreOp.FieldAccessOp fieldAccessOp) {
+        var descriptor = fieldAccessOp.fieldDescriptor();
+        return members.computeIfAbsent("field " + descriptor, _ -> {
+            try {
+                var lookup = Lookups.lookupFor(Types.classOf(descriptor.refType()));
+                return ((VarHandle) descriptor.resolveToHandle(lookup)).toMethodHandle(VarHandle.AccessMode.GET);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Field " + descriptor + " is not accessible", e);
+            }
+        });
+    }
+
+    private static MethodHandle method(CoreOp.InvokeOp invokeOp) {
+        var descriptor = invokeOp.invokeDescriptor();
+        return members.computeIfAbsent("method " + descriptor, _ -> {
+            try {
+                var lookup = Lookups.lookupFor(Types.classOf(descriptor.refType()));
+                return descriptor.resolveToHandle(lookup).asFixedArity();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Method " + descriptor + " is not accessible", e);
+            }
+        });
+    }
+
+    private static MethodHandle constructor(CoreOp.NewOp newOp) {
+        var type = newOp.resultType();
+        var constructorType = newOp.constructorType();
+        return members.computeIfAbsent("new " + type + constructorType, _ -> {
+            var owner = Types.classOf(type);
+            var parameterTypes = constructorType.parameterTypes().stream()
+                .map(Types::classOf)
+                .toArray(Class<?>[]::new);
+            try {
+                return Lookups.lookupFor(owner).findConstructor(owner, MethodType.methodType(void.class, parameterTypes));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Constructor of " + owner.getName() + " is not accessible", e);
+            }
+        });
+    }
+
+    /**
+     * Resolves the result type of a leaf op, types that can't be resolved to a class are passed as objects.
+     */
+    private static Class<?> typeOf(TypeElement type) {
+        try {
+            return Types.classOf(type);
+        } catch (IllegalArgumentException _) {
+            return Object.class;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.linq.core.util;
+
+import java.lang.reflect.code.Body;
+import java.lang.reflect.code.Op;
+import java.lang.reflect.code.Value;
+import java.lang.reflect.code.op.CoreOp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Classifies values of a lambda by what they depend on, so translation can decide whether to evaluate
+ * an expression on the client or to render it as sql without trying to evaluate it first.
+ * The lambda is analyzed in a single pass before translation, in order of its ops,
+ * so operands are always classified before the ops using them.
+ */
+public final class Dependencies {
+
+    private static final ThreadLocal<Dependencies> bound = new ThreadLocal<>();
+
+    private final Map<Value, Object> capturedValues;
+
+    private final Map<Value, Dependency> dependencies = new HashMap<>();
+
+    private Dependencies(Map<Value, Object> capturedValues) {
+        this.capturedValues = capturedValues;
+    }
+
+    /**
+     * Analyzes the lambda and runs the translation with the analysis bound to the current thread.
+     * Previously bound analysis is restored after the action completes.
+     * @param lambdaOp the lambda being translated
+     * @param capturedValues captured values of the lambda
+     * @param action the translation
+     * @return the result of the action
+     * @param <R> the type of the result
+     */
+    public static <R> R with(CoreOp.LambdaOp lambdaOp, Map<Value, Object> capturedValues, Supplier<R> action) {
+        var dependencies = new Dependencies(capturedValues);
+        dependencies.analyze(lambdaOp.body());
+        var previous = bound.get();
+        bound.set(dependencies);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                bound.set(previous);
+            } else {
+                bound.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the dependency of the op result. Ops outside of the lambda being translated are classified on demand.
+     * @param op the op
+     * @param capturedValues captured values of the lambda the op belongs to
+     */
+    public static Dependency of(Op op, Map<Value, Object> capturedValues) {
+        var current = bound.get();
+        if (current != null) {
+            var dependency = current.dependencies.get(op.result());
+            if (dependency != null) {
+                return dependency;
+            }
+        }
+        var dependencies = current != null && current.capturedValues == capturedValues ? current : new Dependencies(capturedValues);
+        return dependencies.classify(op);
+    }
+
+    private void analyze(Body body) {
+        for (var block : body.blocks()) {
+            for (var op : block.ops()) {
+                for (var nested : op.bodies()) {
+                    analyze(nested);
+                }
+                if (op.result() != null) {
+                    dependencies.put(op.result(), classify(op));
+                }
+            }
+        }
+    }
+
+    private Dependency classify(Op op) {
+        return switch (op) {
+            case CoreOp.ConstantOp _ -> Dependency.CONSTANT;
+            case CoreOp.VarAccessOp varAccessOp -> capturedValues.containsKey(varAccessOp.varOp().result())
+                ? Dependency.CAPTURED
+                : Dependency.ROW;
+            case CoreOp.FieldAccessOp _, CoreOp.InvokeOp _, CoreOp.NewOp _ -> {
+                // members are evaluated on every invocation, so even members of constants are never constant
+                var dependency = Dependency.CAPTURED;
+                for (var operand : op.operands()) {
+                    if (classify(operand) == Dependency.ROW) {
+                        dependency = Dependency.ROW;
+                        break;
+                    }
+                }
+                yield dependency;
+            }
+            default -> Dependency.ROW;
+        };
+    }
+
+    private Dependency classify(Value value) {
+        var dependency = dependencies.get(value);
+        if (dependency != null) {
+            return dependency;
+        }
+        return value instanceof Op.Result result ? classify(result.op()) : Dependency.ROW;
+    }
+
+    /**
+     * What a value of a lambda depends on.
+     */
+    public enum Dependency {
+        /**
+         * Literal known on translation.
+         */
+        CONSTANT,
+        /**
+         * Depends on captured values only, evaluated on the client for every invocation of the lambda.
+         */
+        CAPTURED,
+        /**
+         * Depends on the lambda parameters, or can't be evaluated on the client, rendered as sql.
+         */
+        ROW;
+
+        public boolean isEvaluable() {
+            return this != ROW;
+        }
+    }
+}
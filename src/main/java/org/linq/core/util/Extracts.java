@@ -13,6 +13,7 @@ public class Extracts {
      * Behaviour is following:
      * - If the op is CoreOp.InvokeOp and name does not start with "get", return the name as is
      * - If the op is CoreOp.InvokeOp and name starts with "get", return the name that goes after "get" with the first letter in lower case
+     * - If the op is CoreOp.InvokeOp of a record component accessor, return the name of the component as is, even if it starts with "get"
      * - If the op is not CoreOp.FieldAccessOp, return the name as is
      * @param op, either a CoreOp.InvokeOp or a CoreOp.FieldAccessOp
      * @throws IllegalArgumentException if the op is not a CoreOp.InvokeOp or a CoreOp.FieldAccessOp
@@ -22,7 +23,7 @@ public class Extracts {
         return switch (op) {
             case CoreOp.InvokeOp invokeOp -> {
                 var name = invokeOp.invokeDescriptor().name();
-                if (name.startsWith("get")) {
+                if (name.startsWith("get") && name.length() > 3 && !isRecordAccessor(invokeOp)) {
                     yield name.substring(3, 4).toLowerCase() + name.substring(4);
                 }
                 yield name;
@@ -32,4 +33,40 @@ public class Extracts {
         };
     }
 
+    /**
+     * Convert a setter method name to a field name, i.e. return the name that goes after "set" with the first letter in lower case.
+     * @param invokeOp invocation of the setter
+     * @throws IllegalArgumentException if the method is not a setter
+     * @return a field name
+     */
+    public static String setterToFieldName(CoreOp.InvokeOp invokeOp) {
+        var name = invokeOp.invokeDescriptor().name();
+        if (!name.startsWith("set") || name.length() <= 3) {
+            throw new IllegalArgumentException("Not a setter: " + name);
+        }
+        return name.substring(3, 4).toLowerCase() + name.substring(4);
+    }
+
+    private static boolean isRecordAccessor(CoreOp.InvokeOp invokeOp) {
+        var descriptor = invokeOp.invokeDescriptor();
+        if (!descriptor.type().parameterTypes().isEmpty()) {
+            return false;
+        }
+        Class<?> owner;
+        try {
+            owner = Types.classOf(descriptor.refType());
+        } catch (IllegalArgumentException _) {
+            return false;
+        }
+        if (!owner.isRecord()) {
+            return false;
+        }
+        for (var component : owner.getRecordComponents()) {
+            if (component.getName().equals(descriptor.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
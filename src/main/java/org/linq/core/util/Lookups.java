@@ -0,0 +1,23 @@
+package org.linq.core.util;
+
+import java.lang.invoke.MethodHandles;
+
+public class Lookups {
+
+    private Lookups() {
+    }
+
+    /**
+     * Returns a lookup with full access to the given class if its package is open to this module,
+     * otherwise a lookup limited to public members.
+     * @param type the class to look up members of
+     * @return the lookup
+     */
+    public static MethodHandles.Lookup lookupFor(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException _) {
+            return MethodHandles.publicLookup();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.linq.core.util;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.code.TypeElement;
+import java.lang.reflect.code.type.ClassType;
+import java.lang.reflect.code.type.PrimitiveType;
+
+public class Types {
+
+    private Types() {
+    }
+
+    /**
+     * Resolves the class of the given code model type.
+     * @param type either a PrimitiveType or a ClassType
+     * @return the resolved class, primitive types resolve to their primitive classes
+     * @throws IllegalArgumentException if type is neither primitive nor class type or its class is not found
+     */
+    public static Class<?> classOf(TypeElement type) {
+        return switch (type) {
+            case PrimitiveType primitiveType -> {
+                if (primitiveType == PrimitiveType.INT) {
+                    yield int.class;
+                } else if (primitiveType == PrimitiveType.LONG) {
+                    yield long.class;
+                } else if (primitiveType == PrimitiveType.SHORT) {
+                    yield short.class;
+                } else if (primitiveType == PrimitiveType.BYTE) {
+                    yield byte.class;
+                } else if (primitiveType == PrimitiveType.DOUBLE) {
+                    yield double.class;
+                } else if (primitiveType == PrimitiveType.FLOAT) {
+                    yield float.class;
+                } else if (primitiveType == PrimitiveType.BOOLEAN) {
+                    yield boolean.class;
+                } else if (primitiveType == PrimitiveType.CHAR) {
+                    yield char.class;
+                }
+                yield void.class;
+            }
+            case ClassType classType -> {
+                try {
+                    yield Class.forName(classType.toClassName());
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalArgumentException("Class not found for " + classType, e);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported type " + type);
+        };
+    }
+
+    /**
+     * Returns the wrapper class for a primitive class, or the class itself otherwise.
+     */
+    public static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
@@ -0,0 +1,90 @@
+package org.linq.core.write;
+
+import java.lang.reflect.code.Op;
+import java.lang.reflect.code.Value;
+import java.lang.reflect.code.op.CoreOp;
+import java.lang.reflect.code.type.PrimitiveType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.linq.core.function.QuotableConsumer;
+import org.linq.core.operand.Operand;
+import org.linq.core.query.QueryPart;
+import org.linq.core.sql.SqlNode;
+import org.linq.core.util.Captures;
+import org.linq.core.util.Dependencies;
+import org.linq.core.util.Extracts;
+import org.linq.core.util.Ops;
+
+/**
+ * SET list of an UPDATE statement translated from a quoted consumer assigning properties of the row,
+ * either through setters or fields. Assigned values are translated as operands, so they may depend on the row.
+ * As in sql, all values are computed from the row before the update, so every property can only be assigned once.
+ */
+public final class Assignments implements QueryPart {
+
+    private final Map<String, Operand> values;
+
+    private final Map<Value, Object> capturedValues;
+
+    private Assignments(Map<String, Operand> values, Map<Value, Object> capturedValues) {
+        this.values = values;
+        this.capturedValues = capturedValues;
+    }
+
+    /**
+     * Translates the assignments of the consumer.
+     * @throws IllegalArgumentException if the consumer does anything but assigning properties of the row
+     */
+    public static Assignments of(QuotableConsumer<?> update) {
+        var quoted = update.quoted();
+        var lambdaOp = (CoreOp.LambdaOp) quoted.op();
+        var capturedValues = quoted.capturedValues();
+        return Dependencies.with(lambdaOp, capturedValues, () -> translate(lambdaOp, capturedValues));
+    }
+
+    private static Assignments translate(CoreOp.LambdaOp lambdaOp, Map<Value, Object> capturedValues) {
+        var values = new LinkedHashMap<String, Operand>();
+        for (var op : lambdaOp.body().entryBlock().ops()) {
+            switch (op) {
+                case CoreOp.FieldAccessOp.FieldStoreOp storeOp -> {
+                    if (storeOp.operands().size() != 2 || !Ops.isColumnAccessor(storeOp, capturedValues)) {
+                        throw new IllegalArgumentException("Update must only assign properties of the row: " + op);
+                    }
+                    assign(values, storeOp.fieldDescriptor().name(), storeOp, capturedValues);
+                }
+                case CoreOp.InvokeOp invokeOp when invokeOp.resultType().equals(PrimitiveType.VOID) -> {
+                    if (invokeOp.operands().size() != 2 || !Ops.isColumnAccessor(invokeOp, capturedValues)) {
+                        throw new IllegalArgumentException("Update must only assign properties of the row: " + op);
+                    }
+                    assign(values, Extracts.setterToFieldName(invokeOp), invokeOp, capturedValues);
+                }
+                default -> {
+                    if (!op.bodies().isEmpty()) {
+                        throw new IllegalArgumentException("Update must assign properties unconditionally: " + op);
+                    }
+                }
+            }
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Update must assign at least one property");
+        }
+        return new Assignments(values, capturedValues);
+    }
+
+    private static void assign(Map<String, Operand> values, String field, Op op, Map<Value, Object> capturedValues) {
+        var value = ((Op.Result) op.operands().getLast()).op();
+        if (values.putIfAbsent(field, Operand.of(value, capturedValues)) != null) {
+            throw new IllegalArgumentException("Property " + field + " is assigned more than once");
+        }
+    }
+
+    @Override
+    public SqlNode toSql() {
+        return Captures.with(capturedValues, () -> {
+            var assignments = new ArrayList<SqlNode>(values.size());
+            values.forEach((field, value) -> assignments.add(SqlNode.of(SqlNode.column(field), " = ", value.toSql())));
+            return SqlNode.join(", ", assignments);
+        });
+    }
+}
@@ -0,0 +1,220 @@
+package org.linq.core.write;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.linq.core.entity.EntityMetadata;
+import org.linq.core.query.QueryParameter;
+import org.linq.core.util.Types;
+
+/**
+ * Writes entities in JDBC batches. Statements and property accessors are resolved once per entity class.
+ * The identifier of the entity metadata identifies rows for updates and deletes. A generated identifier
+ * is not inserted, instead generated keys are assigned back to inserted entities.
+ * @param <T> the entity type
+ */
+public final class EntityWriter<T> {
+
+    private static final ClassValue<EntityWriter<?>> writers = new ClassValue<>() {
+        @Override
+        protected EntityWriter<?> computeValue(Class<?> type) {
+            return new EntityWriter<>(EntityMetadata.of(type));
+        }
+    };
+
+    private final Class<T> type;
+
+    private final List<Property> properties;
+
+    private final Property id;
+
+    private final boolean generatedId;
+
+    private final String insertSql;
+
+    private final String updateSql;
+
+    private final String deleteSql;
+
+    private EntityWriter(EntityMetadata<T> entity) {
+        this.type = entity.type();
+        var properties = new ArrayList<Property>();
+        Property id = null;
+        for (var metadata : entity.properties()) {
+            var property = property(metadata);
+            if (property == null) {
+                continue;
+            }
+            if (metadata.id()) {
+                id = property;
+            } else {
+                properties.add(property);
+            }
+        }
+        this.properties = List.copyOf(properties);
+        this.id = id;
+        this.generatedId = id != null && entity.id().orElseThrow().generated();
+
+        var table = entity.table();
+        var insertProperties = insertProperties();
+        this.insertSql = "INSERT INTO %s (%s) VALUES (%s)".formatted(
+            table,
+            insertProperties.stream().map(Property::column).collect(Collectors.joining(", ")),
+            insertProperties.stream().map(_ -> "?").collect(Collectors.joining(", "))
+        );
+        this.updateSql = id == null ? null : "UPDATE %s SET %s WHERE %s = ?".formatted(
+            table,
+            this.properties.stream().map(property -> property.column() + " = ?").collect(Collectors.joining(", ")),
+            id.column()
+        );
+        this.deleteSql = id == null ? null : "DELETE FROM %s WHERE %s = ?".formatted(table, id.column());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> EntityWriter<T> of(Class<T> type) {
+        return (EntityWriter<T>) writers.get(type);
+    }
+
+    /**
+     * Inserts entities in batches of the given size. Generated ids are assigned to the inserted entities,
+     * unless the identifier can't be assigned, e.g. of a record.
+     * @return number of inserted rows
+     */
+    public int insertAll(Connection connection, Collection<? extends T> entities, int batchSize) throws SQLException {
+        var insertProperties = insertProperties();
+        var assignKeys = generatedId && id.setter() != null;
+        try (var statement = assignKeys
+            ? connection.prepareStatement(insertSql, new String[]{id.column()})
+            : connection.prepareStatement(insertSql)) {
+            return executeBatches(statement, entities, batchSize, insertProperties, assignKeys);
+        }
+    }
+
+    /**
+     * Updates all columns of the entities, matching rows by id.
+     * @return number of updated rows
+     */
+    public int updateAll(Connection connection, Collection<? extends T> entities, int batchSize) throws SQLException {
+        requireId();
+        var updateProperties = new ArrayList<>(properties);
+        updateProperties.add(id);
+        try (var statement = connection.prepareStatement(updateSql)) {
+            return executeBatches(statement, entities, batchSize, updateProperties, false);
+        }
+    }
+
+    /**
+     * Deletes rows matching ids of the entities.
+     * @return number of deleted rows
+     */
+    public int deleteAll(Connection connection, Collection<? extends T> entities, int batchSize) throws SQLException {
+        requireId();
+        try (var statement = connection.prepareStatement(deleteSql)) {
+            return executeBatches(statement, entities, batchSize, List.of(id), false);
+        }
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    private List<Property> insertProperties() {
+        if (id == null || generatedId) {
+            return properties;
+        }
+        var insertProperties = new ArrayList<>(properties);
+        insertProperties.addFirst(id);
+        return insertProperties;
+    }
+
+    private int executeBatches(
+        PreparedStatement statement,
+        Collection<? extends T> entities,
+        int batchSize,
+        List<Property> parameters,
+        boolean assignKeys
+    ) throws SQLException {
+        var count = 0;
+        var pending = new ArrayList<T>(Math.min(batchSize, entities.size()));
+        for (var entity : entities) {
+            for (int i = 0; i < parameters.size(); i++) {
+                QueryParameter.of(parameters.get(i).get(entity)).bind(statement, i + 1);
+            }
+            statement.addBatch();
+            pending.add(entity);
+            if (pending.size() == batchSize) {
+                count += flush(statement, pending, assignKeys);
+            }
+        }
+        if (!pending.isEmpty()) {
+            count += flush(statement, pending, assignKeys);
+        }
+        return count;
+    }
+
+    private int flush(PreparedStatement statement, List<T> pending, boolean assignKeys) throws SQLException {
+        var count = 0;
+        for (var updated : statement.executeBatch()) {
+            // a rewritten batch may report success without a row count
+            count += updated == Statement.SUCCESS_NO_INFO ? 1 : Math.max(updated, 0);
+        }
+        if (assignKeys) {
+            var keyType = Types.boxed(id.type());
+            try (var keys = statement.getGeneratedKeys()) {
+                for (var entity : pending) {
+                    if (!keys.next()) {
+                        break;
+                    }
+                    id.set(entity, keys.getObject(1, keyType));
+                }
+            }
+        }
+        pending.clear();
+        return count;
+    }
+
+    private void requireId() {
+        if (id == null) {
+            throw new IllegalStateException("Entity " + type.getName() + " has no identifier");
+        }
+    }
+
+    private static Property property(EntityMetadata.Property property) {
+        if (property.getter() == null) {
+            return null;
+        }
+        var getter = property.getter().asType(MethodType.methodType(Object.class, Object.class));
+        var setter = property.setter() == null ? null
+            : property.setter().asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return new Property(property.column(), property.type(), getter, setter);
+    }
+
+    private record Property(String column, Class<?> type, MethodHandle getter, MethodHandle setter) {
+
+        private Object get(Object entity) {
+            try {
+                return (Object) getter.invokeExact(entity);
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void set(Object entity, Object value) {
+            if (setter == null) {
+                throw new IllegalStateException("Column " + column + " can't be assigned");
+            }
+            try {
+                setter.invokeExact(entity, value);
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}